@@ -0,0 +1,63 @@
+package com.example.notebookapp.benchmark;
+
+import com.example.notebookapp.model.Role;
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.security.jwt.JwtUtil;
+import com.example.notebookapp.security.jwt.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token issue and verification. "cached" hits JwtUtil's verified-token cache,
+ * as a client reusing its token does; "uncached" pays the HMAC and JSON decode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "BENCHMARK_SECRET_KEY_FOR_JMH_RUNS_ONLY_AT_LEAST_32_CHARS";
+
+    private User user;
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        user = new User("benchuser", "bench@example.com", "hashedpass", Role.USER);
+        var id = User.class.getDeclaredField("id");
+        id.setAccessible(true);
+        id.set(user, 42L);
+
+        cached = new JwtUtil(SECRET, 3_600_000, 10_000);
+        uncached = new JwtUtil(SECRET, 3_600_000, 0);
+        token = cached.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isValid_cached() {
+        return cached.isValid(token);
+    }
+
+    @Benchmark
+    public String extractEmail_cached() {
+        return cached.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean isValid_uncached() {
+        return uncached.isValid(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verify_uncached() {
+        return uncached.verify(token);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.notebookapp.benchmark;
+
+import com.example.notebookapp.model.Note;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of note lists, as written by the notes endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NoteSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Note> notes;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        notes = new ArrayList<>(size);
+        String content = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(8);
+        for (int i = 0; i < size; i++) {
+            notes.add(new Note((long) i, "Note title " + i, content, 42L));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() {
+        return objectMapper.writeValueAsBytes(notes);
+    }
+}
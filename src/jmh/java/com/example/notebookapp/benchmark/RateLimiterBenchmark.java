@@ -0,0 +1,67 @@
+package com.example.notebookapp.benchmark;
+
+import com.example.notebookapp.security.ratelimit.RateLimitProperties;
+import com.example.notebookapp.security.ratelimit.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Token bucket acquire under contention: all threads on one key (CAS retries on a
+ * single bucket) versus one key per thread (map lookups only).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    private TokenBucketRateLimiter limiter;
+    private TokenBucketRateLimiter.Group group;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+        String key;
+
+        @Setup
+        public void setUp(RateLimiterBenchmark benchmark) {
+            key = "10.0.0." + benchmark.threadIds.incrementAndGet();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Group config = new RateLimitProperties.Group();
+        config.setName("default");
+        config.setPaths(List.of("/**"));
+        // high enough that the benchmark measures the allowed path
+        config.setRequestsPerMinute(Integer.MAX_VALUE);
+        config.setBurst(1_000_000);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(List.of(config));
+
+        limiter = new TokenBucketRateLimiter(properties);
+        group = limiter.groupFor("/notes");
+    }
+
+    @Benchmark
+    public long tryAcquire_sharedKey() {
+        return limiter.tryAcquire(group, "203.0.113.1");
+    }
+
+    @Benchmark
+    public long tryAcquire_keyPerThread(ThreadKey threadKey) {
+        return limiter.tryAcquire(group, threadKey.key);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TokenBucketRateLimiter.Group groupFor() {
+        return limiter.groupFor("/notes/123");
+    }
+}
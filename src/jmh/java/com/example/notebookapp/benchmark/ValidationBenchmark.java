@@ -0,0 +1,54 @@
+package com.example.notebookapp.benchmark;
+
+import com.example.notebookapp.dto.CreateUserRequest;
+import com.example.notebookapp.validation.UsernameValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration input checks. The password policy reports violations through the
+ * validation context, so it is measured through Validator.validateValue as a
+ * request would run it; the username check is called directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    // separate state so only the password benchmark is parameterized
+    @State(Scope.Benchmark)
+    public static class Passwords {
+        // valid, too short, missing special char, common password shape
+        @Param({"ValidPass123!", "Short1!", "NoSpecialChars123", "Password123!!"})
+        public String password;
+    }
+
+    private Validator validator;
+    private UsernameValidator usernameValidator;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        usernameValidator = new UsernameValidator();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> passwordPolicy(Passwords passwords) {
+        return validator.validateValue(CreateUserRequest.class, "password", passwords.password);
+    }
+
+    @Benchmark
+    public boolean username_valid() {
+        return usernameValidator.isValid("bench_user_42", null);
+    }
+
+    @Benchmark
+    public boolean username_invalid() {
+        return usernameValidator.isValid("bench user!", null);
+    }
+}
@@ -42,20 +42,20 @@ public class TokenController {
             return ResponseEntity.badRequest().body(Map.of("error", "Missing refresh token"));
         }
 
-        // validate and rotate the refresh token
-        String email = refreshTokenService.validateAndRotate(refreshToken);
-        if (email == null) {
+        // validate and rotate the refresh token; the replacement joins the same token family
+        RefreshTokenService.Rotation rotation = refreshTokenService.validateAndRotate(refreshToken);
+        if (rotation == null) {
             log.warn("Refresh attempt with invalid/expired token");
             return ResponseEntity.status(401).body(Map.of("error", "Invalid or expired refresh token"));
         }
 
-        // get the user to create a new refresh token
-        User user = userRepository.findByEmail(email)
+        // get the user for the access token claims
+        User user = userRepository.findById(rotation.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found after token validation"));
 
-        // generate new tokens
-        String newAccessToken = jwtUtil.generateToken(email);
-        String newRefreshToken = refreshTokenService.create(user);
+        // generate new tokens; claims are re-read from the user row, so role changes apply here
+        String newAccessToken = jwtUtil.generateToken(user);
+        String newRefreshToken = rotation.getToken();
 
         // set new access token cookie
         Cookie accessTokenCookie = createCookie("accessToken", newAccessToken, ACCESS_TOKEN_COOKIE_MAX_AGE);
@@ -65,6 +65,7 @@ public class TokenController {
         Cookie refreshTokenCookie = createCookie("refreshToken", newRefreshToken, REFRESH_TOKEN_COOKIE_MAX_AGE);
         response.addCookie(refreshTokenCookie);
 
+        String email = user.getEmail();
         log.info("Successfully refreshed tokens for user={}", email);
 
         return ResponseEntity.ok(Map.of(
@@ -0,0 +1,66 @@
+package com.example.notebookapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool from the database's cores instead of Hikari's fixed default of 10:
+ * (db cores * 2 + effective spindles), shared among the application instances using the
+ * database. Connections beyond that only queue inside PostgreSQL. An explicit
+ * spring.datasource.hikari.maximum-pool-size always wins.
+ */
+@Component
+@ConditionalOnProperty(name = "db.pool.auto-size", havingValue = "true")
+public class ConnectionPoolSizing implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolSizing.class);
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+    private static final int MIN_POOL_SIZE = 2;
+
+    private final Environment environment;
+
+    public ConnectionPoolSizing(Environment environment) {
+        this.environment = environment;
+    }
+
+    // after initialization, so the spring.datasource.hikari.* binding has already been applied;
+    // read through a Binder, which matches relaxed forms such as SPRING_DATASOURCE_HIKARI_MAXIMUMPOOLSIZE
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource dataSource)) {
+            return bean;
+        }
+
+        Binder binder = Binder.get(environment);
+        if (binder.bind(MAXIMUM_POOL_SIZE, Integer.class).isBound()) {
+            return bean;
+        }
+
+        // 0 means unknown: assume the database runs on a machine like this one
+        int dbCores = binder.bind("db.pool.db-cores", Integer.class).orElse(0);
+        if (dbCores <= 0) {
+            dbCores = Runtime.getRuntime().availableProcessors();
+        }
+        int spindles = binder.bind("db.pool.effective-spindles", Integer.class).orElse(1);
+        int instances = binder.bind("db.pool.instances", Integer.class).orElse(1);
+
+        int size = poolSize(dbCores, spindles, instances);
+        dataSource.setMaximumPoolSize(size);
+        log.info("Connection pool {} sized to {} ({} database cores, {} spindles, {} instances)",
+                dataSource.getPoolName(), size, dbCores, spindles, instances);
+        return bean;
+    }
+
+    static int poolSize(int dbCores, int effectiveSpindles, int instances) {
+        int total = dbCores * 2 + Math.max(0, effectiveSpindles);
+        int perInstance = (total + Math.max(1, instances) - 1) / Math.max(1, instances);
+        return Math.max(MIN_POOL_SIZE, perInstance);
+    }
+}
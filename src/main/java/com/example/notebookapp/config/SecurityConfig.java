@@ -37,6 +37,9 @@ public class SecurityConfig {
                                 "/users/register-form"
                         ).permitAll()
 
+                        // only served on the management port (management.server.port)
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+
                         // Admin-only endpoints
                         .requestMatchers("/admin/**").hasRole("ADMIN")
 
@@ -78,10 +81,11 @@ public class SecurityConfig {
                         )
                 )
 
-                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
-
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
 
+                // after authentication so limits can be keyed by user id
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
+
                 .exceptionHandling(ex -> ex
                     .authenticationEntryPoint(securityEventLogger)
                 );
@@ -2,10 +2,9 @@ package com.example.notebookapp.controller;
 
 import com.example.notebookapp.dto.LoginRequest;
 import com.example.notebookapp.model.User;
-import com.example.notebookapp.repository.UserRepository;
 import com.example.notebookapp.security.jwt.JwtUtil;
+import com.example.notebookapp.service.UserService;
 import org.springframework.http.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import com.example.notebookapp.security.token.RefreshTokenService;
 import java.util.Map;
@@ -18,17 +17,16 @@ import jakarta.servlet.http.HttpServletResponse;
 @RequestMapping("/auth")
 public class AuthController {
 
-    private final UserRepository repo;
+    private final UserService userService;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
     private final RefreshTokenService refreshTokenService;
     private static final Logger log = LoggerFactory.getLogger(AuthController.class);
 
     private static final int ACCESS_TOKEN_COOKIE_MAX_AGE = 15 * 60; // 15 minutes
     private static final int REFRESH_TOKEN_COOKIE_MAX_AGE = 7 * 24 * 60 * 60; // 7 days in seconds
 
-    public AuthController(UserRepository repo, JwtUtil jwtUtil, RefreshTokenService refreshTokenService) {
-        this.repo = repo;
+    public AuthController(UserService userService, JwtUtil jwtUtil, RefreshTokenService refreshTokenService) {
+        this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.refreshTokenService = refreshTokenService;
     }
@@ -36,17 +34,17 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest req, HttpServletResponse response) {
 
-        User user = repo.findByEmail(req.getEmail())
+        User user = userService.findByCredentials(req.getEmail(), req.getPassword())
                 .orElse(null);
 
-        if (user == null || !encoder.matches(req.getPassword(), user.getPassword())) {
+        if (user == null) {
             log.warn("Failed login attempt for email={}", req.getEmail());
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid credentials"));
         }
 
-        String accessToken = jwtUtil.generateToken(user.getEmail());
+        String accessToken = jwtUtil.generateToken(user);
         String refreshToken = refreshTokenService.create(user);
 
         // Set access token cookie
@@ -1,22 +1,30 @@
 package com.example.notebookapp.controller;
 
 import com.example.notebookapp.dto.CreateNoteRequest;
+import com.example.notebookapp.dto.ImportResult;
+import com.example.notebookapp.dto.NotePage;
+import com.example.notebookapp.dto.SearchPage;
 import com.example.notebookapp.model.Note;
+import com.example.notebookapp.search.NoteSearchService;
 import com.example.notebookapp.service.NoteService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/notes")
 public class NoteController {
 
     private final NoteService noteService;
+    private final NoteSearchService noteSearchService;
 
-    public NoteController(NoteService noteService) {
+    public NoteController(NoteService noteService, NoteSearchService noteSearchService) {
         this.noteService = noteService;
+        this.noteSearchService = noteSearchService;
     }
 
     @PostMapping
@@ -26,9 +34,44 @@ public class NoteController {
                 .body(noteService.create(request.getTitle(), request.getContent()));
     }
 
+    // Bulk import: a JSON array or NDJSON stream of {title, content} records
+    @PostMapping(
+            value = "/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ImportResult importNotes(HttpServletRequest request) throws IOException {
+        return noteService.importNotes(request.getInputStream());
+    }
+
     @GetMapping
-    public List<Note> getAll() {
-        return noteService.getAll();
+    public NotePage getAll(
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit
+    ) {
+        return noteService.getAll(cursor, limit);
+    }
+
+    @GetMapping("/search")
+    public SearchPage search(
+            @RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        return noteSearchService.search(noteService.getCurrentUserId(), query, page, size);
+    }
+
+    // Streams all notes as NDJSON; nothing is buffered beyond the JDBC fetch size
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        // resolve the owner here - the body runs on an async thread without the security context
+        Long userId = noteService.getCurrentUserId();
+
+        StreamingResponseBody body = out -> noteService.exportNdjson(userId, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,37 @@
+package com.example.notebookapp.dto;
+
+import java.util.List;
+
+public class ImportResult {
+
+    private final int imported;
+    private final int failed;
+
+    // capped, so a badly broken file cannot blow up the response
+    private final List<RecordError> errors;
+
+    public ImportResult(int imported, int failed, List<RecordError> errors) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public int getImported() { return imported; }
+    public int getFailed() { return failed; }
+    public List<RecordError> getErrors() { return errors; }
+
+    public static class RecordError {
+
+        // zero-based position of the record in the uploaded array / stream
+        private final int index;
+        private final String message;
+
+        public RecordError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+        public String getMessage() { return message; }
+    }
+}
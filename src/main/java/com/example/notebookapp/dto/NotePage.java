@@ -0,0 +1,19 @@
+package com.example.notebookapp.dto;
+
+import java.util.List;
+
+public class NotePage {
+
+    private final List<NoteSummary> items;
+
+    // id to pass as ?cursor= for the next page, null on the last page
+    private final Long next;
+
+    public NotePage(List<NoteSummary> items, Long next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<NoteSummary> getItems() { return items; }
+    public Long getNext() { return next; }
+}
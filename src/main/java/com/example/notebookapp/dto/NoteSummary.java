@@ -0,0 +1,21 @@
+package com.example.notebookapp.dto;
+
+public class NoteSummary {
+
+    private final Long id;
+    private final String title;
+    private final int contentLength;
+    private final String snippet;
+
+    public NoteSummary(Long id, String title, int contentLength, String snippet) {
+        this.id = id;
+        this.title = title;
+        this.contentLength = contentLength;
+        this.snippet = snippet;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public int getContentLength() { return contentLength; }
+    public String getSnippet() { return snippet; }
+}
@@ -0,0 +1,23 @@
+package com.example.notebookapp.dto;
+
+public class SearchHit {
+
+    private final Long id;
+    private final String title;
+
+    // excerpt of the content with matches wrapped in <mark></mark>
+    private final String snippet;
+    private final double rank;
+
+    public SearchHit(Long id, String title, String snippet, double rank) {
+        this.id = id;
+        this.title = title;
+        this.snippet = snippet;
+        this.rank = rank;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getSnippet() { return snippet; }
+    public double getRank() { return rank; }
+}
@@ -0,0 +1,23 @@
+package com.example.notebookapp.dto;
+
+import java.util.List;
+
+public class SearchPage {
+
+    private final List<SearchHit> hits;
+    private final int page;
+    private final int size;
+    private final boolean hasMore;
+
+    public SearchPage(List<SearchHit> hits, int page, int size, boolean hasMore) {
+        this.hits = hits;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    public List<SearchHit> getHits() { return hits; }
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+    public boolean isHasMore() { return hasMore; }
+}
@@ -2,9 +2,12 @@ package com.example.notebookapp.error;
 
 import com.example.notebookapp.exception.ForbiddenException;
 import com.example.notebookapp.exception.ResourceNotFoundException;
+import com.example.notebookapp.exception.ServiceUnavailableException;
 import com.example.notebookapp.exception.UnauthorizedException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -12,6 +15,8 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.SQLTransientConnectionException;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -98,6 +103,43 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    // 503 — temporarily out of capacity (e.g. password hashing queue full)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(
+            ServiceUnavailableException ex) {
+
+        log.warn("Request rejected: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(new ErrorResponse(
+                        503,
+                        "Service Unavailable",
+                        ex.getMessage()
+                ));
+    }
+
+    // 503 — no database connection within the pool's connection-timeout
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailable(Exception ex) {
+
+        if (!isPoolTimeout(ex)) {
+            return handleInternalError(ex);
+        }
+
+        log.warn("Request rejected, no database connection available: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(new ErrorResponse(
+                        503,
+                        "Service Unavailable",
+                        "Server busy, please retry"
+                ));
+    }
+
     // 500 — fallback for unexpected errors
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleInternalError(Exception ex) {
@@ -112,4 +154,15 @@ public class GlobalExceptionHandler {
                         "An unexpected error occurred"
                 ));
     }
+
+    // Hikari reports an exhausted pool as SQLTransientConnectionException,
+    // wrapped by JPA or JdbcTemplate depending on who asked for the connection
+    private static boolean isPoolTimeout(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -6,8 +6,10 @@ import jakarta.persistence.*;
 @Table(name = "notes")
 public class Note {
 
+    // pooled: one nextval reserves a block of ids, so inserts need no round trip of their own and can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_id_seq")
+    @SequenceGenerator(name = "notes_id_seq", sequenceName = "notes_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,6 +29,12 @@ public class Note {
         this.userId = userId;
     }
 
+    // For rows read outside JPA (JdbcTemplate)
+    public Note(Long id, String title, String content, Long userId) {
+        this(title, content, userId);
+        this.id = id;
+    }
+
     public Long getId() { return id; }
     public String getTitle() { return title; }
     public String getContent() { return content; }
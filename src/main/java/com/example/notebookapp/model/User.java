@@ -1,14 +1,17 @@
 package com.example.notebookapp.model;
 
+import com.example.notebookapp.security.PrincipalCacheInvalidator;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(PrincipalCacheInvalidator.class)
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 50)
@@ -51,4 +54,5 @@ public class User {
     public Role getRole() { return role; }
 
     public void setRole(Role role) { this.role = role; }
+    public void setPassword(String password) { this.password = password; }
 }
\ No newline at end of file
@@ -1,21 +1,41 @@
 package com.example.notebookapp.repository;
 
+import com.example.notebookapp.dto.CreateNoteRequest;
+import com.example.notebookapp.dto.NoteSummary;
 import com.example.notebookapp.model.Note;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Repository
 public class NoteCustomRepository {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // same meter as Spring Data's repository metrics, so JDBC and JPA calls chart together
+    private static final String INVOCATIONS = "spring.data.repository.invocations";
+
     private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // increment of notes_id_seq, looked up on first use
+    private volatile long noteIdBlockSize;
 
-    public NoteCustomRepository(JdbcTemplate jdbcTemplate) {
+    public NoteCustomRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -26,21 +46,159 @@ public class NoteCustomRepository {
         String sql = "SELECT * FROM notes WHERE user_id = ? AND title ILIKE ? ORDER BY id DESC";
 
         // JdbcTemplate automatically uses prepared statements with ? placeholders
-        return jdbcTemplate.query(
+        return timed("findNotesByUserIdAndTitleContaining", () -> jdbcTemplate.query(
                 sql,
                 new Object[]{userId, "%" + keyword + "%"},
                 new NoteRowMapper()
+        ));
+    }
+
+    /**
+     * Keyset page of note summaries, newest first.
+     * Only the first snippetLength characters of content leave the database.
+     */
+    public List<NoteSummary> findSummariesByUserId(Long userId, Long beforeId, int limit, int snippetLength) {
+        if (beforeId == null) {
+            String sql = "SELECT id, title, LENGTH(content) AS content_length, LEFT(content, ?) AS snippet " +
+                    "FROM notes WHERE user_id = ? ORDER BY id DESC LIMIT ?";
+            return timed("findSummariesByUserId",
+                    () -> jdbcTemplate.query(sql, new NoteSummaryRowMapper(), snippetLength, userId, limit));
+        }
+
+        String sql = "SELECT id, title, LENGTH(content) AS content_length, LEFT(content, ?) AS snippet " +
+                "FROM notes WHERE user_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+        return timed("findSummariesByUserId",
+                () -> jdbcTemplate.query(sql, new NoteSummaryRowMapper(), snippetLength, userId, beforeId, limit));
+    }
+
+    /**
+     * Streams every note of a user, oldest first, without building a list.
+     * PostgreSQL only uses a server-side cursor (honours the fetch size)
+     * when autocommit is off, hence the read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamByUserId(Long userId, Consumer<Note> consumer) {
+        stream(userId, consumer);
+    }
+
+    /**
+     * Same as {@link #streamByUserId}, in a read-write transaction so it never reads
+     * from a lagging read replica. For state that is built once and then kept current
+     * by later writes, such as the in-memory search index.
+     */
+    @Transactional
+    public void streamByUserIdFromPrimary(Long userId, Consumer<Note> consumer) {
+        stream(userId, consumer);
+    }
+
+    private void stream(Long userId, Consumer<Note> consumer) {
+        String sql = "SELECT id, title, content, user_id FROM notes WHERE user_id = ? ORDER BY id";
+        NoteRowMapper mapper = new NoteRowMapper();
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    ps.setLong(1, userId);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(mapper.mapRow(rs, rs.getRow()))
         );
     }
 
+    /**
+     * Inserts one chunk of notes as a single JDBC batch in its own transaction.
+     * Ids are bound explicitly, taken from notes_id_seq blocks the way Hibernate's pooled
+     * optimizer takes them: the column default would spend a whole block on every row.
+     */
+    @Transactional
+    public void batchInsert(Long userId, List<CreateNoteRequest> notes) {
+        String sql = "INSERT INTO notes (id, title, content, user_id) VALUES (?, ?, ?, ?)";
+        long[] ids = allocateNoteIds(notes.size());
+
+        timed("batchInsert", () -> jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CreateNoteRequest note = notes.get(i);
+                ps.setLong(1, ids[i]);
+                ps.setString(2, note.getTitle());
+                ps.setString(3, note.getContent());
+                ps.setLong(4, userId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return notes.size();
+            }
+        }));
+    }
+
+    // each nextval is the top of a block of noteIdBlockSize ids; the rest of the last block is left unused
+    private long[] allocateNoteIds(int count) {
+        long blockSize = noteIdBlockSize();
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long top = jdbcTemplate.queryForObject("SELECT nextval('notes_id_seq')", Long.class);
+            for (long id = top - blockSize + 1; id <= top && filled < count; id++) {
+                ids[filled++] = id;
+            }
+        }
+        return ids;
+    }
+
+    // read from the sequence, not from configuration: it is what Hibernate's ids follow too
+    private long noteIdBlockSize() {
+        long size = noteIdBlockSize;
+        if (size == 0) {
+            size = jdbcTemplate.queryForObject(
+                    "SELECT increment FROM information_schema.sequences WHERE sequence_name = 'notes_id_seq'",
+                    Long.class);
+            noteIdBlockSize = size;
+        }
+        return size;
+    }
+
+    // streamByUserId is left out: its duration is dominated by the consumer, not the query
+    private <T> T timed(String method, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "None";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer(INVOCATIONS,
+                    "repository", "NoteCustomRepository",
+                    "method", method,
+                    "state", "None".equals(exception) ? "SUCCESS" : "ERROR",
+                    "exception", exception));
+        }
+    }
+
     private static class NoteRowMapper implements RowMapper<Note> {
         @Override
         public Note mapRow(ResultSet rs, int rowNum) throws SQLException {
             return new Note(
+                    rs.getLong("id"),
                     rs.getString("title"),
                     rs.getString("content"),
                     rs.getLong("user_id")
             );
         }
     }
-}
\ No newline at end of file
+
+    private static class NoteSummaryRowMapper implements RowMapper<NoteSummary> {
+        @Override
+        public NoteSummary mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new NoteSummary(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getInt("content_length"),
+                    rs.getString("snippet")
+            );
+        }
+    }
+}
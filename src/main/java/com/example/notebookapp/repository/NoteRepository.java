@@ -3,6 +3,7 @@ package com.example.notebookapp.repository;
 import com.example.notebookapp.model.Note;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +14,12 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
 
     Optional<Note> findByIdAndUserId(Long id, Long userId);
 
+    // owner-scoped delete in one statement; 0 means missing or not owned
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Note n WHERE n.id = :id AND n.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
     // REQUIRED raw SQL with prepared statement
     @Query(
             value = "SELECT * FROM notes WHERE user_id = :userId AND title ILIKE %:keyword%",
@@ -2,10 +2,16 @@ package com.example.notebookapp.repository;
 
 import com.example.notebookapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    // not read-only, so it never goes to a read replica: token refresh re-reads the role from here
+    @Override
+    @Transactional
+    Optional<User> findById(Long id);
 }
@@ -0,0 +1,111 @@
+package com.example.notebookapp.search;
+
+import com.example.notebookapp.repository.NoteCustomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-user inverted indexes kept on the heap, used when notes.search.engine=memory.
+ * An index is built from the database on the user's first search, then kept
+ * current by NoteService. Least recently used indexes are evicted once the
+ * estimated total size exceeds the configured budget.
+ */
+@Component
+public class InMemoryNoteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryNoteIndex.class);
+
+    private final NoteCustomRepository noteCustomRepository;
+    private final long maxHeapBytes;
+
+    // access-ordered, so iteration starts at the least recently used index
+    private final LinkedHashMap<Long, UserNoteIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    public InMemoryNoteIndex(
+            NoteCustomRepository noteCustomRepository,
+            @Value("${notes.search.memory.max-heap-mb:64}") long maxHeapMb
+    ) {
+        this.noteCustomRepository = noteCustomRepository;
+        this.maxHeapBytes = maxHeapMb * 1024 * 1024;
+    }
+
+    /**
+     * Matching note ids for a user, newest first. Builds the index on first use.
+     */
+    public long[] search(Long userId, String query) {
+        UserNoteIndex index;
+        synchronized (this) {
+            index = indexes.computeIfAbsent(userId, id -> new UserNoteIndex());
+        }
+
+        // built outside the map lock; concurrent updates wait on the index itself
+        boolean builtNow = false;
+        synchronized (index) {
+            if (!index.isBuilt()) {
+                // from the primary: notes created or deleted while a replica lags would
+                // otherwise be missing from (or linger in) the index until it is rebuilt
+                noteCustomRepository.streamByUserIdFromPrimary(userId,
+                        note -> index.add(note.getId(), note.getTitle(), note.getContent()));
+                index.markBuilt();
+                builtNow = true;
+            }
+        }
+
+        if (builtNow) {
+            log.debug("Built in-memory note index for user={} (~{} KB)", userId, index.estimatedBytes() / 1024);
+            evictOverBudget(userId);
+        }
+
+        return index.search(query);
+    }
+
+    // no-ops for users without an index - it will be built from the database when needed
+    public void add(Long userId, Long noteId, String title, String content) {
+        UserNoteIndex index = peek(userId);
+        if (index != null) {
+            index.add(noteId, title, content);
+            evictOverBudget(userId);
+        }
+    }
+
+    public void remove(Long userId, Long noteId) {
+        UserNoteIndex index = peek(userId);
+        if (index != null) {
+            index.remove(noteId);
+        }
+    }
+
+    public synchronized void invalidate(Long userId) {
+        indexes.remove(userId);
+    }
+
+    private synchronized UserNoteIndex peek(Long userId) {
+        return indexes.get(userId);
+    }
+
+    // never evicts the index that was just used, even if it alone exceeds the budget;
+    // must not be called while holding an index lock
+    private synchronized void evictOverBudget(Long keep) {
+        long total = 0;
+        for (UserNoteIndex index : indexes.values()) {
+            total += index.estimatedBytes();
+        }
+
+        Iterator<Map.Entry<Long, UserNoteIndex>> it = indexes.entrySet().iterator();
+        while (total > maxHeapBytes && it.hasNext()) {
+            Map.Entry<Long, UserNoteIndex> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            total -= eldest.getValue().estimatedBytes();
+            it.remove();
+            log.debug("Evicted in-memory note index for user={}", eldest.getKey());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.notebookapp.search;
+
+import com.example.notebookapp.dto.SearchHit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database-backed note search.
+ * On PostgreSQL it uses the generated search_vector column (GIN index, ranked,
+ * ts_headline snippets). Elsewhere (H2 in tests) it falls back to LIKE matching.
+ */
+@Repository
+public class NoteSearchRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchRepository.class);
+
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2";
+
+    // the snippet is HTML: the note text is escaped (as HtmlUtils.htmlEscape does) before
+    // ts_headline adds its tags; the parser reads &lt; and friends as entities, not words
+    private static final String ESCAPED_CONTENT =
+            "replace(replace(replace(replace(replace(n.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), " +
+            "'\"', '&quot;'), '''', '&#39;')";
+
+    // rank and page first, then build headlines only for the rows returned
+    private static final String FULL_TEXT_SQL =
+            "SELECT n.id, n.title, ts_headline('english', " + ESCAPED_CONTENT + ", h.tsq, '" + HEADLINE_OPTIONS + "') AS snippet, h.rank " +
+            "FROM (" +
+            "  SELECT id, ts_rank(search_vector, tsq) AS rank, tsq " +
+            "  FROM notes, websearch_to_tsquery('english', ?) tsq " +
+            "  WHERE user_id = ? AND search_vector @@ tsq " +
+            "  ORDER BY rank DESC, id DESC LIMIT ? OFFSET ?" +
+            ") h JOIN notes n ON n.id = h.id " +
+            "ORDER BY h.rank DESC, h.id DESC";
+
+    private static final int FALLBACK_SNIPPET_LENGTH = 160;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean fullText;
+
+    public NoteSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        this.fullText = "PostgreSQL".equalsIgnoreCase(product);
+
+        if (!fullText) {
+            log.info("Database {} has no tsvector support, note search uses LIKE matching", product);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SearchHit> search(Long userId, String query, int limit, int offset) {
+        if (fullText) {
+            return jdbcTemplate.query(
+                    FULL_TEXT_SQL,
+                    (rs, rowNum) -> new SearchHit(
+                            rs.getLong("id"),
+                            rs.getString("title"),
+                            rs.getString("snippet"),
+                            rs.getDouble("rank")
+                    ),
+                    query, userId, limit, offset
+            );
+        }
+
+        return searchWithLike(userId, Snippets.terms(query), limit, offset);
+    }
+
+    /**
+     * Loads hits for ids found by the in-memory index, keeping the given order.
+     * The user_id filter guards against ids of notes that changed owner or vanished.
+     */
+    @Transactional(readOnly = true)
+    public List<SearchHit> findHitsByIds(Long userId, long[] ids, String query) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        List<String> terms = Snippets.terms(query);
+        String placeholders = String.join(",", Collections.nCopies(ids.length, "?"));
+        Object[] args = new Object[ids.length + 1];
+        args[0] = userId;
+        for (int i = 0; i < ids.length; i++) {
+            args[i + 1] = ids[i];
+        }
+
+        Map<Long, SearchHit> byId = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, title, content FROM notes WHERE user_id = ? AND id IN (" + placeholders + ")",
+                rs -> {
+                    long id = rs.getLong("id");
+                    byId.put(id, new SearchHit(
+                            id,
+                            rs.getString("title"),
+                            Snippets.highlight(rs.getString("content"), terms, FALLBACK_SNIPPET_LENGTH),
+                            0
+                    ));
+                },
+                args
+        );
+
+        List<SearchHit> hits = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            SearchHit hit = byId.get(id);
+            if (hit != null) {
+                hits.add(hit);
+            }
+        }
+        return hits;
+    }
+
+    // every term must appear in the title or the content
+    private List<SearchHit> searchWithLike(Long userId, List<String> terms, int limit, int offset) {
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT id, title, content FROM notes WHERE user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+
+        for (String term : terms) {
+            sql.append(" AND (LOWER(title) LIKE ? ESCAPE '\\' OR LOWER(content) LIKE ? ESCAPE '\\')");
+            String pattern = "%" + escapeLike(term) + "%";
+            args.add(pattern);
+            args.add(pattern);
+        }
+
+        sql.append(" ORDER BY id DESC LIMIT ? OFFSET ?");
+        args.add(limit);
+        args.add(offset);
+
+        return jdbcTemplate.query(
+                sql.toString(),
+                (rs, rowNum) -> new SearchHit(
+                        rs.getLong("id"),
+                        rs.getString("title"),
+                        Snippets.highlight(rs.getString("content"), terms, FALLBACK_SNIPPET_LENGTH),
+                        0
+                ),
+                args.toArray()
+        );
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
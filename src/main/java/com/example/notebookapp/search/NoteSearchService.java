@@ -0,0 +1,83 @@
+package com.example.notebookapp.search;
+
+import com.example.notebookapp.dto.SearchHit;
+import com.example.notebookapp.dto.SearchPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class NoteSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final NoteSearchRepository searchRepository;
+    private final InMemoryNoteIndex memoryIndex;
+
+    // "database" (tsvector / LIKE) or "memory" (per-user inverted index on the heap)
+    private final boolean useMemoryIndex;
+
+    public NoteSearchService(
+            NoteSearchRepository searchRepository,
+            InMemoryNoteIndex memoryIndex,
+            @Value("${notes.search.engine:database}") String engine
+    ) {
+        this.searchRepository = searchRepository;
+        this.memoryIndex = memoryIndex;
+        this.useMemoryIndex = "memory".equalsIgnoreCase(engine);
+    }
+
+    // not read-only as a whole: building the in-memory index must read the primary,
+    // the repository queries themselves go to a replica
+    public SearchPage search(Long userId, String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        if (query == null || query.isBlank()) {
+            return new SearchPage(List.of(), pageNumber, pageSize, false);
+        }
+
+        // one extra row tells us whether another page exists
+        List<SearchHit> rows = useMemoryIndex
+                ? searchMemoryIndex(userId, query.trim(), pageSize + 1, pageNumber * pageSize)
+                : searchRepository.search(userId, query.trim(), pageSize + 1, pageNumber * pageSize);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<SearchHit> hits = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return new SearchPage(hits, pageNumber, pageSize, hasMore);
+    }
+
+    // Index maintenance hooks, called by NoteService after the database change
+
+    public void noteCreated(Long userId, Long noteId, String title, String content) {
+        if (useMemoryIndex) {
+            memoryIndex.add(userId, noteId, title, content);
+        }
+    }
+
+    public void noteDeleted(Long userId, Long noteId) {
+        if (useMemoryIndex) {
+            memoryIndex.remove(userId, noteId);
+        }
+    }
+
+    // bulk changes: cheaper to rebuild on the next search than to replay
+    public void notesChanged(Long userId) {
+        if (useMemoryIndex) {
+            memoryIndex.invalidate(userId);
+        }
+    }
+
+    private List<SearchHit> searchMemoryIndex(Long userId, String query, int limit, int offset) {
+        long[] ids = memoryIndex.search(userId, query);
+        if (offset >= ids.length) {
+            return List.of();
+        }
+
+        long[] page = Arrays.copyOfRange(ids, offset, Math.min(ids.length, offset + limit));
+        return searchRepository.findHitsByIds(userId, page, query);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.notebookapp.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Builds highlighted excerpts in Java for engines that cannot do it in SQL.
+ * Output matches ts_headline's as NoteSearchRepository calls it: HTML, with the note
+ * text escaped and matches wrapped in <mark></mark>.
+ */
+final class Snippets {
+
+    private Snippets() {}
+
+    // Lower-cased alphanumeric terms of a user query, in order, without duplicates
+    static List<String> terms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+
+        return Pattern.compile("[^\\p{L}\\p{N}]+")
+                .splitAsStream(query.toLowerCase(Locale.ROOT))
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    static String highlight(String text, List<String> terms, int maxLength) {
+        if (terms.isEmpty()) {
+            return HtmlUtils.htmlEscape(truncate(text, 0, maxLength));
+        }
+
+        Pattern pattern = Pattern.compile(
+                terms.stream().map(Pattern::quote).collect(Collectors.joining("|")),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+        );
+
+        // centre-left the window on the first match so some context precedes it
+        Matcher first = pattern.matcher(text);
+        int start = first.find() ? Math.max(0, first.start() - maxLength / 4) : 0;
+
+        // matched on the raw text and escaped piecewise, so terms never match inside an entity
+        String excerpt = truncate(text, start, maxLength);
+        Matcher matcher = pattern.matcher(excerpt);
+        StringBuilder html = new StringBuilder(excerpt.length() + 32);
+        int last = 0;
+        while (matcher.find()) {
+            html.append(HtmlUtils.htmlEscape(excerpt.substring(last, matcher.start())))
+                    .append("<mark>")
+                    .append(HtmlUtils.htmlEscape(matcher.group()))
+                    .append("</mark>");
+            last = matcher.end();
+        }
+        return html.append(HtmlUtils.htmlEscape(excerpt.substring(last))).toString();
+    }
+
+    private static String truncate(String text, int start, int maxLength) {
+        int end = Math.min(text.length(), start + maxLength);
+        String excerpt = text.substring(start, end);
+
+        if (start > 0) {
+            excerpt = "..." + excerpt;
+        }
+        if (end < text.length()) {
+            excerpt = excerpt + "...";
+        }
+        return excerpt;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.notebookapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the notes of one user: term -> sorted note ids, plus note id ->
+ * its posting lists, so removing a note touches only its own terms.
+ * Posting lists are primitive long arrays; reads and updates lock the instance.
+ */
+class UserNoteIndex {
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    // query syntax: a trailing * turns a term into a prefix match
+    private static final Pattern QUERY_TOKEN = Pattern.compile("([\\p{L}\\p{N}]+)(\\*)?");
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    // rough per-entry costs (object headers, TreeMap entry, String) for the heap budget
+    private static final long TERM_OVERHEAD_BYTES = 120;
+    private static final long INDEX_OVERHEAD_BYTES = 256;
+    private static final long NOTE_OVERHEAD_BYTES = 80;
+    private static final long REFERENCE_BYTES = 8;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final HashMap<Long, Postings[]> postingsByNote = new HashMap<>();
+    private boolean built;
+
+    // written under the lock, read without it so the owner's eviction pass never blocks on an index
+    private volatile long estimatedBytes = INDEX_OVERHEAD_BYTES;
+
+    synchronized boolean isBuilt() {
+        return built;
+    }
+
+    synchronized void markBuilt() {
+        built = true;
+    }
+
+    long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    // idempotent: adding a note twice leaves a single posting
+    synchronized void add(long noteId, String title, String content) {
+        List<Postings> added = new ArrayList<>();
+        addTokens(noteId, title, added);
+        addTokens(noteId, content, added);
+        if (added.isEmpty()) {
+            return;
+        }
+
+        Postings[] previous = postingsByNote.get(noteId);
+        Postings[] all;
+        if (previous == null) {
+            all = added.toArray(new Postings[0]);
+            estimatedBytes += NOTE_OVERHEAD_BYTES;
+        } else {
+            all = Arrays.copyOf(previous, previous.length + added.size());
+            for (int i = 0; i < added.size(); i++) {
+                all[previous.length + i] = added.get(i);
+            }
+        }
+        postingsByNote.put(noteId, all);
+        estimatedBytes += added.size() * REFERENCE_BYTES;
+    }
+
+    synchronized void remove(long noteId) {
+        Postings[] own = postingsByNote.remove(noteId);
+        if (own == null) {
+            return;
+        }
+
+        estimatedBytes -= NOTE_OVERHEAD_BYTES + own.length * REFERENCE_BYTES;
+        for (Postings postings : own) {
+            // array capacity never shrinks, so only dropped terms change the estimate
+            if (postings.remove(noteId) && postings.size == 0) {
+                estimatedBytes -= termBytes(postings.term) + postings.bytes();
+                terms.remove(postings.term);
+            }
+        }
+    }
+
+    /**
+     * Ids of notes matching every query term, newest (highest id) first.
+     */
+    synchronized long[] search(String query) {
+        long[] result = null;
+
+        Matcher m = QUERY_TOKEN.matcher(query.toLowerCase(Locale.ROOT));
+        while (m.find()) {
+            String term = truncate(m.group(1));
+            long[] matches = m.group(2) != null ? prefixMatches(term) : exactMatches(term);
+
+            result = result == null ? matches : intersect(result, matches);
+            if (result.length == 0) {
+                return result;
+            }
+        }
+
+        if (result == null) {
+            return new long[0];
+        }
+
+        reverse(result);
+        return result;
+    }
+
+    // collects the posting lists the note was newly added to
+    private void addTokens(long noteId, String text, List<Postings> added) {
+        if (text == null) {
+            return;
+        }
+
+        Matcher m = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+        while (m.find()) {
+            String term = truncate(m.group());
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                postings = new Postings(term);
+                terms.put(term, postings);
+                estimatedBytes += termBytes(term) + postings.bytes();
+            }
+
+            long before = postings.bytes();
+            if (postings.add(noteId)) {
+                added.add(postings);
+                estimatedBytes += postings.bytes() - before;
+            }
+        }
+    }
+
+    private long[] exactMatches(String term) {
+        Postings postings = terms.get(term);
+        return postings == null ? new long[0] : Arrays.copyOf(postings.ids, postings.size);
+    }
+
+    // union of all terms starting with the prefix, sorted and de-duplicated
+    private long[] prefixMatches(String prefix) {
+        NavigableMap<String, Postings> range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return new long[0];
+        }
+
+        List<Postings> lists = new ArrayList<>(range.values());
+        int total = 0;
+        for (Postings p : lists) {
+            total += p.size;
+        }
+
+        long[] all = new long[total];
+        int pos = 0;
+        for (Postings p : lists) {
+            System.arraycopy(p.ids, 0, all, pos, p.size);
+            pos += p.size;
+        }
+
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[unique++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static void reverse(long[] ids) {
+        for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+            long tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+    }
+
+    private static String truncate(String term) {
+        return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+    }
+
+    private static long termBytes(String term) {
+        return TERM_OVERHEAD_BYTES + term.length() * 2L;
+    }
+
+    /**
+     * Sorted, growable long array. Ids are usually appended in increasing order.
+     */
+    private static final class Postings {
+        final String term;
+        long[] ids = new long[2];
+        int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        boolean add(long id) {
+            int pos = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return false;
+            }
+
+            int insertAt = -(pos + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+            return true;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        long bytes() {
+            return 32 + ids.length * 8L;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.notebookapp.security;
+
+import com.example.notebookapp.model.Role;
+import com.example.notebookapp.model.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal stored in the Authentication for JWT-authenticated requests.
+ * Carries the user id so services never look the user up again.
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String email, Role role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public Role getRole() { return role; }
+    public List<GrantedAuthority> getAuthorities() { return authorities; }
+
+    // Authentication.getName() resolves to the email, as before
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.notebookapp.security;
+
+import com.example.notebookapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-based cache of email -> (user id, role) for request authentication.
+ * Entries are dropped when a user is updated or deleted (see PrincipalCacheInvalidator);
+ * the TTL bounds staleness for changes made outside JPA.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            @Value("${security.principal-cache.ttl:PT1M}") Duration ttl,
+            @Value("${security.principal-cache.max-size:10000}") int maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached principal, loading it on a miss; null if no such user exists.
+     */
+    public AuthenticatedUser get(String email) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.user;
+        }
+
+        AuthenticatedUser user = userRepository.findByEmail(email)
+                .map(AuthenticatedUser::from)
+                .orElse(null);
+
+        if (user == null) {
+            entries.remove(email);
+            return null;
+        }
+
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(email, new Entry(user, now + ttlNanos));
+        return user;
+    }
+
+    public void invalidate(String email) {
+        entries.remove(email);
+    }
+
+    // drop expired entries first; if still full, drop arbitrary ones down to 90%
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt - now <= 0);
+
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize * 9 / 10 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class Entry {
+        final AuthenticatedUser user;
+        final long expiresAt;
+
+        Entry(AuthenticatedUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.notebookapp.security;
+
+import com.example.notebookapp.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on User: evicts the cached principal when a user is saved, updated
+ * or deleted, and again after the transaction completes so a concurrent request
+ * cannot re-cache the old row in between. Evicting on insert keeps a re-registered
+ * email from resolving to the id of a deleted account.
+ */
+@Component
+public class PrincipalCacheInvalidator {
+
+    // resolved on first use: Hibernate creates this listener while the EntityManagerFactory
+    // the cache depends on (through UserRepository) is still being built
+    private final ObjectProvider<PrincipalCache> principalCacheProvider;
+
+    public PrincipalCacheInvalidator(ObjectProvider<PrincipalCache> principalCacheProvider) {
+        this.principalCacheProvider = principalCacheProvider;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        PrincipalCache principalCache = principalCacheProvider.getObject();
+        String email = user.getEmail();
+        principalCache.invalidate(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principalCache.invalidate(email);
+                }
+            });
+        }
+    }
+}
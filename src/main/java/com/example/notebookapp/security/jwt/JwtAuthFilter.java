@@ -1,8 +1,12 @@
 package com.example.notebookapp.security.jwt;
 
-import com.example.notebookapp.security.UserDetailsServiceImpl;
+import com.example.notebookapp.security.AuthenticatedUser;
+import com.example.notebookapp.security.PrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -12,17 +16,37 @@ import org.springframework.core.annotation.Order;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Order(2)
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsServiceImpl uds) {
+    // stateless: trust the id/role claims of a verified token (role changes apply at the next refresh)
+    private final boolean stateless;
+
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+
+    public JwtAuthFilter(
+            JwtUtil jwtUtil,
+            PrincipalCache principalCache,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.stateless:true}") boolean stateless
+    ) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = uds;
+        this.principalCache = principalCache;
+        this.stateless = stateless;
+
+        this.validTimer = Timer.builder("jwt.verification")
+                .tag("result", "valid")
+                .register(meterRegistry);
+        this.invalidTimer = Timer.builder("jwt.verification")
+                .tag("result", "invalid")
+                .register(meterRegistry);
     }
 
     @Override
@@ -52,16 +76,29 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
         }
 
-        // validate and authenticate
-        if (token != null && jwtUtil.isValid(token)) {
-            String email = jwtUtil.extractEmail(token);
+        // validate and authenticate; anonymous requests are not timed
+        VerifiedToken verified = null;
+        if (token != null) {
+            long start = System.nanoTime();
+            verified = jwtUtil.verify(token);
+            (verified != null ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
 
-            var userDetails = userDetailsService.loadUserByUsername(email);
+        AuthenticatedUser user = null;
+        if (verified != null) {
+            user = stateless ? verified.getPrincipal() : null;
+
+            // stateful mode, or a token issued before the claims existed
+            if (user == null) {
+                user = principalCache.get(verified.getEmail());
+            }
+        }
 
+        if (user != null) {
             var auth = new UsernamePasswordAuthenticationToken(
-                    userDetails,
+                    user,
                     null,
-                    userDetails.getAuthorities()
+                    user.getAuthorities()
             );
 
             auth.setDetails(
@@ -1,53 +1,151 @@
 package com.example.notebookapp.security.jwt;
 
+import com.example.notebookapp.model.Role;
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.security.AuthenticatedUser;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
 
+    // access token claims next to the email subject
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+
     private final Key key;
     private final long expirationMs;
 
+    // JwtParser is immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser;
+
+    // SHA-256 of recently verified tokens -> result; clients reuse one token until it expires
+    private final Map<ByteBuffer, VerifiedToken> verified = new ConcurrentHashMap<>();
+    private final int verifiedCacheSize;
+
     public JwtUtil(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration}") long expirationMs
+            @Value("${jwt.expiration}") long expirationMs,
+            @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheSize
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedCacheSize = verifiedCacheSize;
     }
 
-    public String generateToken(String email) {
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(email)
+                .setSubject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Checks signature and expiry once and returns the decoded token, or null if invalid.
+     * Repeated calls with the same token are answered from the cache until it expires.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        // max-size 0 disables the cache
+        ByteBuffer hash = verifiedCacheSize > 0 ? sha256(token) : null;
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = hash != null ? verified.get(hash) : null;
+        if (cached != null) {
+            if (cached.getExpiresAtMillis() > now) {
+                return cached;
+            }
+            verified.remove(hash);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        // tokens without an expiry are never cached
+        Date expiration = claims.getExpiration();
+        VerifiedToken result = new VerifiedToken(
+                claims.getSubject(),
+                toPrincipal(claims),
+                expiration != null ? expiration.getTime() : now);
+
+        if (hash != null && expiration != null) {
+            if (verified.size() >= verifiedCacheSize) {
+                evict(now);
+            }
+            verified.put(hash, result);
+        }
+        return result;
+    }
+
     public String extractEmail(String token) {
-        return parse(token).getBody().getSubject();
+        VerifiedToken result = verify(token);
+        if (result == null) {
+            throw new JwtException("Invalid token");
+        }
+        return result.getEmail();
     }
 
     public boolean isValid(String token) {
+        return verify(token) != null;
+    }
+
+    // null for tokens issued without the id and role claims
+    private AuthenticatedUser toPrincipal(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+
         try {
-            parse(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return new AuthenticatedUser(userId, claims.getSubject(), Role.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
 
-    private Jws<Claims> parse(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+    // drop expired entries first; if still full, drop arbitrary ones down to 90%
+    private void evict(long now) {
+        verified.values().removeIf(v -> v.getExpiresAtMillis() <= now);
+
+        Iterator<ByteBuffer> it = verified.keySet().iterator();
+        while (verified.size() >= verifiedCacheSize * 9 / 10 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static ByteBuffer sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.example.notebookapp.security.jwt;
+
+import com.example.notebookapp.security.AuthenticatedUser;
+
+/**
+ * Result of a successful signature and expiry check on an access token.
+ */
+public class VerifiedToken {
+
+    private final String email;
+    private final AuthenticatedUser principal;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String email, AuthenticatedUser principal, long expiresAtMillis) {
+        this.email = email;
+        this.principal = principal;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getEmail() { return email; }
+
+    // null for tokens issued without the id and role claims
+    public AuthenticatedUser getPrincipal() { return principal; }
+
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+}
@@ -0,0 +1,87 @@
+package com.example.notebookapp.security.password;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Delegating encoder keyed by the hash's own modular-crypt prefix ($2a$, $argon2id$)
+ * instead of a {id} marker, so hashes already in the users table stay valid as-is.
+ * New hashes use the target encoder; anything weaker reports upgradeEncoding.
+ */
+public class ModularCryptPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final Argon2PasswordEncoder argon2;
+    private final PasswordEncoder target;
+    private final int bcryptCost;
+
+    private ModularCryptPasswordEncoder(int bcryptCost, boolean argon2Target) {
+        this.bcryptCost = bcryptCost;
+        this.bcrypt = new BCryptPasswordEncoder(bcryptCost);
+        // constructing it is cheap; BouncyCastle is only needed once an argon2 hash is used
+        this.argon2 = Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+        this.target = argon2Target ? argon2 : bcrypt;
+    }
+
+    public static ModularCryptPasswordEncoder bcrypt(int cost) {
+        return new ModularCryptPasswordEncoder(cost, false);
+    }
+
+    // existing bcrypt hashes still verify, and are upgraded to argon2 on login
+    public static ModularCryptPasswordEncoder argon2(int bcryptCost) {
+        return new ModularCryptPasswordEncoder(bcryptCost, true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return target.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordEncoder delegate = delegateFor(encodedPassword);
+        return delegate != null && delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        PasswordEncoder delegate = delegateFor(encodedPassword);
+        if (delegate == null) {
+            return false;
+        }
+        if (delegate != target) {
+            return true;
+        }
+        if (delegate == bcrypt) {
+            return bcryptCostOf(encodedPassword) < bcryptCost;
+        }
+        return argon2.upgradeEncoding(encodedPassword);
+    }
+
+    private PasswordEncoder delegateFor(String encodedPassword) {
+        if (encodedPassword == null) {
+            return null;
+        }
+        if (encodedPassword.startsWith("$2")) {
+            return bcrypt;
+        }
+        if (encodedPassword.startsWith("$argon2")) {
+            return argon2;
+        }
+        return null;
+    }
+
+    // $2a$12$... -> 12; malformed hashes count as cost 0 and get upgraded
+    private static int bcryptCostOf(String encodedPassword) {
+        int start = encodedPassword.indexOf('$', 1) + 1;
+        if (start <= 0 || encodedPassword.length() < start + 2) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(start, start + 2));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.notebookapp.security.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    // calibration never goes below the OWASP floor or above what a login can afford
+    private static final int MIN_BCRYPT_COST = 10;
+    private static final int MAX_BCRYPT_COST = 16;
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${security.password.bcrypt.cost:12}") int bcryptCost,
+            @Value("${security.password.bcrypt.calibrate:false}") boolean calibrate,
+            @Value("${security.password.bcrypt.target-latency:PT0.25S}") Duration targetLatency
+    ) {
+        int cost = calibrate ? calibrateBcryptCost(targetLatency) : bcryptCost;
+
+        if ("argon2".equalsIgnoreCase(algorithm)) {
+            if (!ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null)) {
+                throw new IllegalStateException(
+                        "security.password.algorithm=argon2 requires org.bouncycastle:bcprov-jdk18on on the classpath");
+            }
+            log.info("Password hashing: argon2 (bcrypt hashes verified at cost {} and upgraded on login)", cost);
+            return ModularCryptPasswordEncoder.argon2(cost);
+        }
+
+        if (!"bcrypt".equalsIgnoreCase(algorithm)) {
+            throw new IllegalStateException("Unknown security.password.algorithm: " + algorithm);
+        }
+
+        log.info("Password hashing: bcrypt cost {}", cost);
+        return ModularCryptPasswordEncoder.bcrypt(cost);
+    }
+
+    /**
+     * Highest cost whose hash time on this machine stays within the target.
+     * Each step doubles the work, so timing one round per cost is enough.
+     */
+    static int calibrateBcryptCost(Duration targetLatency) {
+        long targetNanos = targetLatency.toNanos();
+
+        // warm up the JIT so the first measurement is not inflated
+        new BCryptPasswordEncoder(4).encode("calibration");
+
+        int chosen = MIN_BCRYPT_COST;
+        for (int cost = MIN_BCRYPT_COST; cost <= MAX_BCRYPT_COST; cost++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(cost).encode("calibration");
+            long elapsed = System.nanoTime() - start;
+
+            log.info("bcrypt cost {} took {} ms", cost, elapsed / 1_000_000);
+            if (elapsed > targetNanos) {
+                break;
+            }
+            chosen = cost;
+
+            // the next cost takes about twice as long; no need to measure it if that cannot fit
+            if (elapsed * 2 > targetNanos) {
+                break;
+            }
+        }
+
+        log.info("Calibrated bcrypt cost {} for target latency {} ms", chosen, targetLatency.toMillis());
+        return chosen;
+    }
+}
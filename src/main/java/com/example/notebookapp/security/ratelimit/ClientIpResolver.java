@@ -0,0 +1,85 @@
+package com.example.notebookapp.security.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.List;
+
+/**
+ * Resolves the client address behind trusted proxies. X-Forwarded-For is read
+ * right to left and the first hop not in the trusted list is the client;
+ * the header is ignored unless the direct peer itself is trusted.
+ */
+class ClientIpResolver {
+
+    private final IpAddressMatcher[] trusted;
+
+    ClientIpResolver(List<String> trustedProxies) {
+        this.trusted = trustedProxies.stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toArray(IpAddressMatcher[]::new);
+    }
+
+    String resolve(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (trusted.length == 0 || !isTrusted(remote)) {
+            return remote;
+        }
+
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isBlank()) {
+            return remote;
+        }
+
+        String client = remote;
+        int end = forwarded.length();
+        while (end > 0) {
+            int start = forwarded.lastIndexOf(',', end - 1) + 1;
+            String hop = forwarded.substring(start, end).trim();
+            end = start - 1;
+
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        // IpAddressMatcher resolves names, so anything but an IP literal is rejected up front
+        if (!isIpLiteral(address)) {
+            return false;
+        }
+
+        for (IpAddressMatcher matcher : trusted) {
+            try {
+                if (matcher.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIpLiteral(String address) {
+        if (address.isEmpty() || address.length() > 45) {
+            return false;
+        }
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            boolean hex = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            if (!hex && c != '.' && c != ':') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,24 +1,37 @@
 package com.example.notebookapp.security.ratelimit;
 
+import com.example.notebookapp.security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Applies the first matching rate limit group. Runs after JwtAuthFilter so
+ * USER-keyed groups can see the authenticated user id.
+ */
 @Component
-@Order(1)
+@Order(3)
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final SimpleRateLimiter limiter;
+    private final TokenBucketRateLimiter limiter;
+    private final ClientIpResolver clientIpResolver;
+    private final MeterRegistry meterRegistry;
     private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
 
-    public RateLimitFilter(SimpleRateLimiter limiter) {
+    public RateLimitFilter(TokenBucketRateLimiter limiter, RateLimitProperties properties, MeterRegistry meterRegistry) {
         this.limiter = limiter;
+        this.clientIpResolver = new ClientIpResolver(properties.getTrustedProxies());
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -28,15 +41,51 @@ public class RateLimitFilter extends OncePerRequestFilter {
             FilterChain chain
     ) throws ServletException, IOException {
 
-        String ip = request.getRemoteAddr();
+        TokenBucketRateLimiter.Group group = limiter.groupFor(request.getRequestURI());
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long result = limiter.tryAcquire(group, resolveKey(group, request));
 
-        if (!limiter.allow(ip)) {
+        response.setHeader("RateLimit-Limit", Integer.toString(group.getBurst()));
+        if (result < 0) {
+            String retryAfter = Long.toString(toSeconds(-result));
             response.setStatus(429);
+            response.setHeader("RateLimit-Remaining", "0");
+            response.setHeader("RateLimit-Reset", retryAfter);
+            response.setHeader("Retry-After", retryAfter);
             response.getWriter().write("Too many requests");
-            log.warn("Rate limit exceeded");
+            meterRegistry.counter("rate.limit.rejected", "group", group.getName()).increment();
+            log.warn("Rate limit exceeded for group={}", group.getName());
             return;
         }
 
+        response.setHeader("RateLimit-Remaining", Long.toString(result));
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(group.nanosUntilFull(result))));
+
         chain.doFilter(request, response);
     }
+
+    private String resolveKey(TokenBucketRateLimiter.Group group, HttpServletRequest request) {
+        switch (group.getKeyType()) {
+            case ROUTE:
+                return group.getName();
+            case USER:
+                // user ids and IP addresses cannot collide, so anonymous callers share the map by IP
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+                    return user.getId().toString();
+                }
+                return clientIpResolver.resolve(request);
+            default:
+                return clientIpResolver.resolve(request);
+        }
+    }
+
+    // rounded up, so clients never retry early
+    private static long toSeconds(long nanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1);
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.notebookapp.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit configuration, bound from rate-limit.* properties.
+ * Groups are matched in order; the first group whose paths match a request applies.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    // buckets untouched (and full) for this long are dropped by the sweep
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // per group; keys beyond this share one overflow bucket until the next sweep
+    private int maxKeysPerGroup = 100_000;
+
+    // proxies (addresses or CIDR ranges) whose X-Forwarded-For entries are believed
+    private List<String> trustedProxies = new ArrayList<>();
+
+    private List<Group> groups = new ArrayList<>();
+
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public void setIdleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; }
+
+    public int getMaxKeysPerGroup() { return maxKeysPerGroup; }
+    public void setMaxKeysPerGroup(int maxKeysPerGroup) { this.maxKeysPerGroup = maxKeysPerGroup; }
+
+    public List<String> getTrustedProxies() { return trustedProxies; }
+    public void setTrustedProxies(List<String> trustedProxies) { this.trustedProxies = trustedProxies; }
+
+    public List<Group> getGroups() { return groups; }
+    public void setGroups(List<Group> groups) { this.groups = groups; }
+
+    /**
+     * What a group's buckets are keyed by. USER falls back to the client IP
+     * for anonymous requests; ROUTE is one bucket shared by every caller.
+     */
+    public enum KeyType { USER, IP, ROUTE }
+
+    public static class Group {
+
+        private String name;
+
+        // exact paths, or prefixes ending in /**
+        private List<String> paths = new ArrayList<>();
+
+        // sustained rate and the number of requests allowed back to back
+        private int requestsPerMinute = 100;
+        private int burst = 100;
+
+        private KeyType key = KeyType.IP;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+
+        public int getRequestsPerMinute() { return requestsPerMinute; }
+        public void setRequestsPerMinute(int requestsPerMinute) { this.requestsPerMinute = requestsPerMinute; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+
+        public KeyType getKey() { return key; }
+        public void setKey(KeyType key) { this.key = key; }
+    }
+}
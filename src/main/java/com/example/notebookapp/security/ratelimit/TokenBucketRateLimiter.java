@@ -0,0 +1,166 @@
+package com.example.notebookapp.security.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets (GCRA). A bucket's whole state is one long, the
+ * theoretical arrival time in nanos, updated with compare-and-set; each route
+ * group has its own bounded map of buckets, and idle buckets are swept.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    private final List<Group> groups;
+    private final LongSupplier clock;
+    private final long idleNanos;
+
+    @Autowired
+    public TokenBucketRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(RateLimitProperties properties, LongSupplier clock) {
+        this.clock = clock;
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+
+        List<Group> configured = new ArrayList<>();
+        for (RateLimitProperties.Group g : properties.getGroups()) {
+            configured.add(new Group(g, properties.getMaxKeysPerGroup(), clock.getAsLong()));
+        }
+        this.groups = Collections.unmodifiableList(configured);
+    }
+
+    /**
+     * First group whose paths match, or null if the path is not rate limited.
+     */
+    public Group groupFor(String path) {
+        for (Group group : groups) {
+            if (group.matches(path)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes one token from the key's bucket in the group.
+     * Returns the tokens left (>= 0), or minus the nanos until a token is available.
+     */
+    public long tryAcquire(Group group, String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = group.bucket(key, now);
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, now) + group.intervalNanos;
+            long excess = newTat - now - group.capacityNanos;
+            if (excess > 0) {
+                return -excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return (group.capacityNanos - (newTat - now)) / group.intervalNanos;
+            }
+        }
+    }
+
+    // a bucket whose arrival time lies idleTimeout in the past is full and unused;
+    // a request racing with removal spends a token on the dropped bucket, at most one lost
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval:PT1M}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        for (Group group : groups) {
+            group.buckets.values().removeIf(bucket -> now - bucket.get() >= idleNanos);
+        }
+    }
+
+    public static final class Group {
+
+        private final String name;
+        private final RateLimitProperties.KeyType keyType;
+        private final String[] exactPaths;
+        private final String[] prefixes;
+        private final int burst;
+
+        // nanos per token, and the burst expressed in nanos
+        private final long intervalNanos;
+        private final long capacityNanos;
+
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final int maxKeys;
+
+        // shared by keys that arrive while the map is full, so a key scan cannot grow the heap
+        private final AtomicLong overflow;
+
+        Group(RateLimitProperties.Group config, int maxKeys, long now) {
+            this.name = config.getName();
+            this.keyType = config.getKey();
+            this.burst = Math.max(1, config.getBurst());
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, config.getRequestsPerMinute());
+            this.capacityNanos = intervalNanos * burst;
+            this.maxKeys = maxKeys;
+            this.overflow = new AtomicLong(now);
+
+            List<String> exact = new ArrayList<>();
+            List<String> prefix = new ArrayList<>();
+            for (String path : config.getPaths()) {
+                if (path.endsWith("/**")) {
+                    prefix.add(path.substring(0, path.length() - 2));
+                } else {
+                    exact.add(path);
+                }
+            }
+            this.exactPaths = exact.toArray(new String[0]);
+            this.prefixes = prefix.toArray(new String[0]);
+        }
+
+        public String getName() { return name; }
+        public RateLimitProperties.KeyType getKeyType() { return keyType; }
+        public int getBurst() { return burst; }
+
+        // time until a bucket with this many tokens left is full again
+        public long nanosUntilFull(long remaining) {
+            return (burst - remaining) * intervalNanos;
+        }
+
+        // prefixes keep their trailing slash: /notes/** matches /notes and /notes/1
+        boolean matches(String path) {
+            for (String exact : exactPaths) {
+                if (exact.equals(path)) {
+                    return true;
+                }
+            }
+            for (String prefix : prefixes) {
+                if (path.startsWith(prefix) || path.length() == prefix.length() - 1 && prefix.startsWith(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int size() {
+            return buckets.size();
+        }
+
+        private AtomicLong bucket(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxKeys) {
+                return overflow;
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+    }
+}
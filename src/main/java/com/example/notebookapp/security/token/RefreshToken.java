@@ -3,17 +3,20 @@ package com.example.notebookapp.security.token;
 import com.example.notebookapp.model.User;
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Table(name = "refresh_tokens")
 public class RefreshToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_id_seq")
+    @SequenceGenerator(name = "refresh_tokens_id_seq", sequenceName = "refresh_tokens_id_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 of the token handed to the client; the raw value is never stored
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
@@ -25,20 +28,38 @@ public class RefreshToken {
     @Column(nullable = false)
     private boolean revoked = false;
 
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+
+    // shared by every token descended from one login
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    // the token this one replaced; null for the first token of a family
+    @Column(name = "parent_id")
+    private Long parentId;
+
     protected RefreshToken() {}
 
-    public RefreshToken(String token, User user, Instant expiresAt) {
-        this.token = token;
+    public RefreshToken(byte[] tokenHash, User user, Instant expiresAt, UUID familyId, Long parentId) {
+        this.tokenHash = tokenHash;
         this.user = user;
         this.expiresAt = expiresAt;
+        this.familyId = familyId;
+        this.parentId = parentId;
     }
 
-    public String getToken() { return token; }
+    public Long getId() { return id; }
+    public byte[] getTokenHash() { return tokenHash; }
     public User getUser() { return user; }
     public Instant getExpiresAt() { return expiresAt; }
     public boolean isRevoked() { return revoked; }
+    public Instant getRevokedAt() { return revokedAt; }
+    public UUID getFamilyId() { return familyId; }
+    public Long getParentId() { return parentId; }
 
-    public void revoke() {
+    public void revoke(Instant at) {
         this.revoked = true;
+        this.revokedAt = at;
     }
 }
@@ -0,0 +1,97 @@
+package com.example.notebookapp.security.token;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class RefreshTokenCustomRepository {
+
+    // PostgreSQL returns the row from the UPDATE itself; H2 has no RETURNING,
+    // but reads the updated row through a data change delta table in the same statement
+    private static final String CONSUME_POSTGRESQL =
+            "UPDATE refresh_tokens SET revoked = TRUE, revoked_at = :now " +
+            "WHERE token_hash = :hash AND revoked = FALSE AND expires_at > :now " +
+            "RETURNING id, user_id, family_id";
+    private static final String CONSUME_H2 =
+            "SELECT id, user_id, family_id FROM FINAL TABLE (" +
+            "UPDATE refresh_tokens SET revoked = TRUE, revoked_at = :now " +
+            "WHERE token_hash = :hash AND revoked = FALSE AND expires_at > :now)";
+
+    // bounded by id so each statement locks and logs at most one batch of rows
+    private static final String DELETE_EXPIRED_BATCH =
+            "DELETE FROM refresh_tokens WHERE id IN (" +
+            "SELECT id FROM refresh_tokens WHERE expires_at < :cutoff ORDER BY id LIMIT :limit)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final String consumeSql;
+
+    public RefreshTokenCustomRepository(EntityManagerFactory entityManagerFactory) {
+        boolean postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        this.consumeSql = postgres ? CONSUME_POSTGRESQL : CONSUME_H2;
+    }
+
+    /**
+     * Compare-and-set on the revoked flag: revokes the token if it is still active and returns it.
+     * Concurrent callers with the same token serialize on the row lock, and only the first
+     * one matches. Returns null when the token is unknown, already revoked or expired.
+     */
+    @Transactional
+    public ConsumedToken consume(byte[] tokenHash, Instant now) {
+        // Instant parameters are bound by Hibernate exactly as the entity's expiresAt is written
+        List<?> rows = entityManager.createNativeQuery(consumeSql)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("user_id", Long.class)
+                .addScalar("family_id", UUID.class)
+                .setParameter("hash", tokenHash)
+                .setParameter("now", now)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        Object[] row = (Object[]) rows.get(0);
+        return new ConsumedToken((Long) row[0], (Long) row[1], (UUID) row[2]);
+    }
+
+    /**
+     * Deletes up to limit tokens that expired before the cutoff, oldest ids first,
+     * in its own transaction. Returns the number of rows deleted.
+     */
+    @Transactional
+    public int deleteExpiredBatch(Instant cutoff, int limit) {
+        return entityManager.createNativeQuery(DELETE_EXPIRED_BATCH)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    public static final class ConsumedToken {
+        private final long id;
+        private final long userId;
+        private final UUID familyId;
+
+        ConsumedToken(long id, long userId, UUID familyId) {
+            this.id = id;
+            this.userId = userId;
+            this.familyId = familyId;
+        }
+
+        public long getId() { return id; }
+        public long getUserId() { return userId; }
+        public UUID getFamilyId() { return familyId; }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.notebookapp.security.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps the partitioned refresh_tokens table (profile partitioned-tokens) supplied with
+ * dated partitions covering every expiry that can be issued, and drops partitions once all
+ * their tokens have expired - a metadata operation instead of deleting rows.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-tokens.partitioned", havingValue = "true")
+public class RefreshTokenPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPartitionMaintenance.class);
+
+    static final String PREFIX = "refresh_tokens_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long DAY_MS = 86_400_000L;
+
+    // pg_advisory_xact_lock key shared by every instance creating partitions
+    private static final long CREATE_LOCK_KEY = 0x7265667265736850L;
+
+    enum Interval {
+        DAILY(1), WEEKLY(7);
+
+        final int days;
+
+        Interval(int days) {
+            this.days = days;
+        }
+
+        LocalDate start(LocalDate date) {
+            return this == WEEKLY ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Interval interval;
+    private final long refreshExpirationDays;
+
+    public RefreshTokenPartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${jwt.refresh-tokens.partition-interval:daily}") String interval,
+            @Value("${jwt.refresh-expiration}") long refreshExpirationMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.interval = Interval.valueOf(interval.toUpperCase(Locale.ROOT));
+        this.refreshExpirationDays = (refreshExpirationMs + DAY_MS - 1) / DAY_MS;
+    }
+
+    // no initial delay: partitions have to exist before the first token of the day is issued;
+    // synchronized so a manual call never overlaps the scheduled run
+    @Scheduled(initialDelayString = "PT0S",
+            fixedDelayString = "${jwt.refresh-tokens.partition-maintenance-interval:PT1H}")
+    public synchronized void maintain() {
+        if (!isPartitioned()) {
+            log.warn("jwt.refresh-tokens.partitioned is set but refresh_tokens is not partitioned; " +
+                    "enable the partitioned-refresh-tokens migration location (PostgreSQL only)");
+            return;
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Set<String> existing = new HashSet<>(existingPartitions());
+
+        for (LocalDate start : periodsToCreate(today, interval, refreshExpirationDays)) {
+            String name = partitionName(start);
+            if (!existing.contains(name)) {
+                try {
+                    if (create(name, start, start.plusDays(interval.days))) {
+                        log.info("Created refresh token partition {}", name);
+                    }
+                } catch (DataAccessException e) {
+                    log.warn("Could not create refresh token partition {}", name, e);
+                }
+            }
+        }
+
+        for (String name : existing) {
+            LocalDate start = parseStart(name);
+            if (start != null && isExpired(start, interval, today)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                log.info("Dropped expired refresh token partition {}", name);
+            }
+        }
+    }
+
+    /**
+     * Period starts from the current one up to the one holding the latest expiry issued today.
+     */
+    static List<LocalDate> periodsToCreate(LocalDate today, Interval interval, long refreshExpirationDays) {
+        List<LocalDate> starts = new ArrayList<>();
+        LocalDate last = interval.start(today.plusDays(refreshExpirationDays + 1));
+        for (LocalDate start = interval.start(today); !start.isAfter(last); start = start.plusDays(interval.days)) {
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    // a day of margin: expires_at is stored without a time zone
+    static boolean isExpired(LocalDate start, Interval interval, LocalDate today) {
+        return start.plusDays(interval.days + 1L).isBefore(today);
+    }
+
+    static String partitionName(LocalDate start) {
+        return PREFIX + SUFFIX.format(start);
+    }
+
+    static LocalDate parseStart(String name) {
+        if (!name.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name.substring(PREFIX.length()), SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // rows that landed in the default partition for this range move with it, in one transaction;
+    // another instance may be creating the same partition, so re-check under a lock held until commit
+    private boolean create(String name, LocalDate from, LocalDate to) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + CREATE_LOCK_KEY + ")");
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name)) {
+                return false;
+            }
+
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE refresh_tokens INCLUDING DEFAULTS)");
+            jdbcTemplate.update(
+                    "WITH moved AS (DELETE FROM refresh_tokens_default " +
+                    "WHERE expires_at >= ? AND expires_at < ? RETURNING *) " +
+                    "INSERT INTO " + name + " SELECT * FROM moved",
+                    from.atStartOfDay(), to.atStartOfDay());
+            jdbcTemplate.execute("ALTER TABLE refresh_tokens ATTACH PARTITION " + name +
+                    " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            return true;
+        }));
+    }
+
+    private boolean isPartitioned() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_partitioned_table pt " +
+                    "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = 'refresh_tokens'",
+                    Integer.class);
+            return count != null && count > 0;
+        } catch (DataAccessException e) {
+            // not PostgreSQL
+            return false;
+        }
+    }
+
+    private List<String> existingPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'refresh_tokens'",
+                String.class);
+    }
+}
@@ -9,18 +9,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
     @Modifying
     @Transactional
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.user = :user AND rt.revoked = false")
-    void revokeAllByUser(@Param("user") User user);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now " +
+            "WHERE rt.user = :user AND rt.revoked = false")
+    void revokeAllByUser(@Param("user") User user, @Param("now") Instant now);
 
     @Modifying
     @Transactional
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now OR rt.revoked = true")
-    void deleteExpiredAndRevoked(@Param("now") Instant now);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now " +
+            "WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
 }
\ No newline at end of file
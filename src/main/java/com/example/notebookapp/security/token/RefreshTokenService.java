@@ -2,94 +2,153 @@ package com.example.notebookapp.security.token;
 
 import com.example.notebookapp.model.User;
 import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.security.token.RefreshTokenCustomRepository.ConsumedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class RefreshTokenService {
 
     private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
     private final RefreshTokenRepository repository;
+    private final RefreshTokenCustomRepository customRepository;
     private final UserRepository userRepository;
     private final long refreshExpirationMs;
     private final SecureRandom random = new SecureRandom();
 
+    // a rotated token presented again within this window is a client retry or a
+    // concurrent duplicate: it is rejected, but the family stays valid
+    private final Duration reuseGrace;
+
+    // SHA-256 of tokens revoked by this instance. Revocation is permanent,
+    // so a local negative cache is safe with several instances.
+    private final Map<ByteBuffer, Revoked> recentlyRevoked = new ConcurrentHashMap<>();
+    private final int revokedCacheSize;
+
+    private final Counter rotated;
+    private final Counter notFound;
+    private final Counter reused;
+    private final Counter expired;
+    private final Counter familiesRevoked;
+
     public RefreshTokenService(
             RefreshTokenRepository repository,
+            RefreshTokenCustomRepository customRepository,
             UserRepository userRepository,
-            @Value("${jwt.refresh-expiration}") long refreshExpirationMs
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-expiration}") long refreshExpirationMs,
+            @Value("${jwt.refresh-reuse-grace:PT10S}") Duration reuseGrace,
+            @Value("${jwt.refresh-revoked-cache.max-size:10000}") int revokedCacheSize
     ) {
         this.repository = repository;
+        this.customRepository = customRepository;
         this.userRepository = userRepository;
         this.refreshExpirationMs = refreshExpirationMs;
+        this.reuseGrace = reuseGrace;
+        this.revokedCacheSize = revokedCacheSize;
+
+        this.rotated = rotations(meterRegistry, "rotated");
+        this.notFound = rotations(meterRegistry, "not_found");
+        this.reused = rotations(meterRegistry, "revoked");
+        this.expired = rotations(meterRegistry, "expired");
+        this.familiesRevoked = Counter.builder("refresh.token.families.revoked")
+                .description("Token families revoked because a rotated token was reused")
+                .register(meterRegistry);
+    }
+
+    private static Counter rotations(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("refresh.token.rotations")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     /**
-     * Create a new refresh token for a user
+     * Result of a successful rotation: the owner's id and the replacement token.
      */
-    public String create(User user) {
-        byte[] bytes = new byte[64];
-        random.nextBytes(bytes);
-        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    public static final class Rotation {
+        private final long userId;
+        private final String token;
 
-        RefreshToken refreshToken = new RefreshToken(
-                token,
-                user,
-                Instant.now().plusMillis(refreshExpirationMs)
-        );
+        Rotation(long userId, String token) {
+            this.userId = userId;
+            this.token = token;
+        }
 
-        repository.save(refreshToken);
-        log.info("Created refresh token for user={}", user.getEmail());
-        return token;
+        public long getUserId() { return userId; }
+        public String getToken() { return token; }
     }
 
     /**
-     * Validate and consume a refresh token (rotation pattern)
-     * Returns the user email if valid, null otherwise
-     * Automatically revokes the old token
+     * Create a new refresh token for a user, starting a new token family
      */
-    public String validateAndRotate(String token) {
-        Optional<RefreshToken> optToken = repository.findByToken(token);
+    public String create(User user) {
+        return issue(user, UUID.randomUUID(), null);
+    }
 
-        if (optToken.isEmpty()) {
-            log.warn("Refresh token not found");
+    /**
+     * Validate and consume a refresh token (rotation pattern)
+     * Returns the owner and a new token in the same family, or null if the token is not usable.
+     * Presenting an already rotated token after the grace period revokes the whole family.
+     */
+    @Transactional
+    public Rotation validateAndRotate(String token) {
+        byte[] hash = sha256(token);
+        ByteBuffer key = ByteBuffer.wrap(hash);
+        Instant now = Instant.now();
+
+        // a replayed, already rotated token is handled without looking it up
+        Revoked known = recentlyRevoked.get(key);
+        if (known != null) {
+            onReuse(known, now);
             return null;
         }
 
-        RefreshToken refreshToken = optToken.get();
-
-        // Check if already revoked
-        if (refreshToken.isRevoked()) {
-            log.warn("Attempted to use revoked refresh token for user={}",
-                    refreshToken.getUser().getEmail());
-            return null;
+        ConsumedToken consumed = customRepository.consume(hash, now);
+        if (consumed != null) {
+            // the owner is only referenced, not loaded
+            String next = issue(userRepository.getReferenceById(consumed.getUserId()),
+                    consumed.getFamilyId(), consumed.getId());
+            remember(key, new Revoked(consumed.getFamilyId(), now));
+            rotated.increment();
+            log.info("Rotated refresh token for user={}", consumed.getUserId());
+            return new Rotation(consumed.getUserId(), next);
         }
 
-        // Check if expired
-        if (refreshToken.getExpiresAt().isBefore(Instant.now())) {
-            log.warn("Attempted to use expired refresh token for user={}",
-                    refreshToken.getUser().getEmail());
-            // Revoke expired token
-            refreshToken.revoke();
-            repository.save(refreshToken);
-            return null;
+        // failure path only: find out why
+        Optional<RefreshToken> optToken = repository.findByTokenHash(hash);
+        if (optToken.isEmpty()) {
+            notFound.increment();
+            log.warn("Refresh token not found");
+        } else if (optToken.get().isRevoked()) {
+            RefreshToken refreshToken = optToken.get();
+            Instant revokedAt = refreshToken.getRevokedAt() != null ? refreshToken.getRevokedAt() : Instant.EPOCH;
+            Revoked revoked = new Revoked(refreshToken.getFamilyId(), revokedAt);
+            remember(key, revoked);
+            onReuse(revoked, now);
+        } else {
+            expired.increment();
+            log.warn("Attempted to use expired refresh token");
         }
-
-        // Token is valid - revoke it (part of rotation)
-        refreshToken.revoke();
-        repository.save(refreshToken);
-
-        log.info("Validated and revoked refresh token for user={}",
-                refreshToken.getUser().getEmail());
-
-        return refreshToken.getUser().getEmail();
+        return null;
     }
 
     /**
@@ -103,7 +162,81 @@ public class RefreshTokenService {
         }
 
         User user = optUser.get();
-        repository.revokeAllByUser(user);
+        repository.revokeAllByUser(user, Instant.now());
         log.info("Revoked all refresh tokens for user={}", email);
     }
-}
\ No newline at end of file
+
+    private String issue(User user, UUID familyId, Long parentId) {
+        byte[] bytes = new byte[64];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken(
+                sha256(token),
+                user,
+                Instant.now().plusMillis(refreshExpirationMs),
+                familyId,
+                parentId
+        );
+
+        repository.save(refreshToken);
+        log.info("Created refresh token for user={}", user.getId());
+        return token;
+    }
+
+    private void onReuse(Revoked revoked, Instant now) {
+        reused.increment();
+
+        if (revoked.at.plus(reuseGrace).isAfter(now)) {
+            log.warn("Rejected refresh token rotated {} ms ago", Duration.between(revoked.at, now).toMillis());
+            return;
+        }
+
+        // the family is revoked once per instance; the UPDATE itself is idempotent
+        if (!revoked.familyRevoked) {
+            revoked.familyRevoked = true;
+            int count = repository.revokeFamily(revoked.familyId, now);
+            familiesRevoked.increment();
+            log.warn("Refresh token reuse detected, revoked {} token(s) in family={}", count, revoked.familyId);
+        }
+    }
+
+    // drop entries past any token lifetime first; if still full, drop arbitrary ones down to 90%
+    private void remember(ByteBuffer key, Revoked revoked) {
+        // max-size 0 disables the cache
+        if (revokedCacheSize <= 0) {
+            return;
+        }
+
+        if (recentlyRevoked.size() >= revokedCacheSize) {
+            Instant cutoff = Instant.now().minusMillis(refreshExpirationMs);
+            recentlyRevoked.values().removeIf(r -> r.at.isBefore(cutoff));
+
+            Iterator<ByteBuffer> it = recentlyRevoked.keySet().iterator();
+            while (recentlyRevoked.size() >= revokedCacheSize * 9 / 10 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        recentlyRevoked.put(key, revoked);
+    }
+
+    static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Revoked {
+        final UUID familyId;
+        final Instant at;
+        volatile boolean familyRevoked;
+
+        Revoked(UUID familyId, Instant at) {
+            this.familyId = familyId;
+            this.at = at;
+        }
+    }
+}
@@ -1,29 +1,103 @@
 package com.example.notebookapp.security.token;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Deletes expired refresh tokens in small batches, each in its own short transaction,
+ * with a pause in between so locks and WAL volume stay bounded. Runs continuously at
+ * a fixed delay instead of one large nightly DELETE.
+ */
 @Component
 public class TokenCleanupScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(TokenCleanupScheduler.class);
-    private final RefreshTokenRepository repository;
+    private final RefreshTokenCustomRepository repository;
 
-    public TokenCleanupScheduler(RefreshTokenRepository repository) {
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration maxRun;
+
+    private final Timer cleanupTimer;
+    private final Counter deleted;
+    private final Counter batches;
+    private final AtomicLong lastRunDeleted = new AtomicLong();
+
+    public TokenCleanupScheduler(
+            RefreshTokenCustomRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.refresh-cleanup.batch-size:5000}") int batchSize,
+            @Value("${jwt.refresh-cleanup.pause:PT0.1S}") Duration pause,
+            @Value("${jwt.refresh-cleanup.max-run:PT1M}") Duration maxRun
+    ) {
         this.repository = repository;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxRun = maxRun;
+
+        this.cleanupTimer = Timer.builder("token.cleanup.duration")
+                .description("Refresh token cleanup runs")
+                .register(meterRegistry);
+        this.deleted = Counter.builder("token.cleanup.deleted")
+                .description("Expired refresh tokens deleted")
+                .register(meterRegistry);
+        this.batches = Counter.builder("token.cleanup.batches")
+                .register(meterRegistry);
+        Gauge.builder("token.cleanup.last.run.deleted", lastRunDeleted, AtomicLong::get)
+                .register(meterRegistry);
     }
 
-    // Run every day at 3 AM
-    @Scheduled(cron = "0 0 3 * * *")
-    @Transactional
+    @Scheduled(
+            fixedDelayString = "${jwt.refresh-cleanup.interval:PT5M}",
+            initialDelayString = "${jwt.refresh-cleanup.initial-delay:PT1M}"
+    )
     public void cleanupExpiredTokens() {
-        log.info("Starting cleanup of expired refresh tokens");
-        repository.deleteExpiredAndRevoked(Instant.now());
-        log.info("Finished cleanup of expired refresh tokens");
+        Timer.Sample sample = Timer.start();
+        long total = run();
+        sample.stop(cleanupTimer);
+        lastRunDeleted.set(total);
+        if (total > 0) {
+            log.info("Deleted {} expired refresh tokens", total);
+        }
+    }
+
+    /**
+     * Deletes batches until one comes back short, the run exceeds max-run, or the thread is interrupted.
+     * Returns the number of rows deleted.
+     */
+    long run() {
+        // a fixed cutoff, so rows expiring during the run wait for the next one
+        Instant cutoff = Instant.now();
+        long deadline = System.nanoTime() + maxRun.toNanos();
+        long total = 0;
+
+        while (true) {
+            int count = repository.deleteExpiredBatch(cutoff, batchSize);
+            total += count;
+            deleted.increment(count);
+            batches.increment();
+
+            if (count < batchSize || System.nanoTime() >= deadline) {
+                return total;
+            }
+
+            try {
+                Thread.sleep(pause.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,63 +1,243 @@
 package com.example.notebookapp.service;
 
+import com.example.notebookapp.dto.CreateNoteRequest;
+import com.example.notebookapp.dto.ImportResult;
+import com.example.notebookapp.dto.NotePage;
+import com.example.notebookapp.dto.NoteSummary;
 import com.example.notebookapp.exception.ForbiddenException;
 import com.example.notebookapp.exception.ResourceNotFoundException;
 import com.example.notebookapp.model.Note;
 import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.NoteCustomRepository;
 import com.example.notebookapp.repository.NoteRepository;
 import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.search.NoteSearchService;
+import com.example.notebookapp.security.AuthenticatedUser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class NoteService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int SNIPPET_LENGTH = 120;
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
     private final NoteRepository noteRepository;
+    private final NoteCustomRepository noteCustomRepository;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final NoteSearchService noteSearchService;
 
-    public NoteService(NoteRepository noteRepository, UserRepository userRepository) {
+    public NoteService(NoteRepository noteRepository,
+                       NoteCustomRepository noteCustomRepository,
+                       UserRepository userRepository,
+                       ObjectMapper objectMapper,
+                       Validator validator,
+                       NoteSearchService noteSearchService) {
         this.noteRepository = noteRepository;
+        this.noteCustomRepository = noteCustomRepository;
         this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.noteSearchService = noteSearchService;
     }
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getName();
+    // JWT-authenticated requests carry the id in the principal; anything else falls back to a lookup
+    public Long getCurrentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
 
-        return userRepository.findByEmail(email)
+        return userRepository.findByEmail(auth.getName())
+                .map(User::getId)
                 .orElseThrow(() -> new RuntimeException("Authenticated user not found"));
     }
 
     public Note create(String title, String content) {
-        User user = getCurrentUser();
-        return noteRepository.save(new Note(title, content, user.getId()));
+        Long userId = getCurrentUserId();
+        // flushed now: list and search read through JdbcTemplate, which does not see pending inserts
+        Note note = noteRepository.saveAndFlush(new Note(title, content, userId));
+        noteSearchService.noteCreated(userId, note.getId(), title, content);
+        return note;
     }
 
-    public List<Note> getAll() {
-        User user = getCurrentUser();
-        return noteRepository.findAllByUserId(user.getId());
+    // Lists summaries newest first; cursor is the "next" value of the previous page
+    @Transactional(readOnly = true)
+    public NotePage getAll(Long cursor, int limit) {
+        Long userId = getCurrentUserId();
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // fetch one extra row to know whether another page exists
+        List<NoteSummary> rows = noteCustomRepository.findSummariesByUserId(
+                userId, cursor, pageSize + 1, SNIPPET_LENGTH);
+
+        if (rows.size() <= pageSize) {
+            return new NotePage(rows, null);
+        }
+
+        List<NoteSummary> items = rows.subList(0, pageSize);
+        return new NotePage(items, items.get(pageSize - 1).getId());
     }
 
+    // one primary-key lookup tells a missing note (404) from someone else's (403)
+    @Transactional(readOnly = true)
     public Note getById(Long id) {
-        User user = getCurrentUser();
+        Long userId = getCurrentUserId();
 
-        // check if the note exists at all
         Note note = noteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Note", id));
 
-        // check if the current user owns it
-        if (!note.getUserId().equals(user.getId())) {
+        if (!note.getUserId().equals(userId)) {
             throw new ForbiddenException("Note", id);
         }
 
         return note;
     }
 
+    // the DELETE checks ownership itself; only a miss costs a second query to pick 403 or 404
     public void delete(Long id) {
-        Note note = getById(id);
-        noteRepository.delete(note);
+        Long userId = getCurrentUserId();
+
+        if (noteRepository.deleteByIdAndUserId(id, userId) == 0) {
+            if (noteRepository.existsById(id)) {
+                throw new ForbiddenException("Note", id);
+            }
+            throw new ResourceNotFoundException("Note", id);
+        }
+
+        noteSearchService.noteDeleted(userId, id);
+    }
+
+    // Writes one JSON object per line, row by row as the cursor advances
+    public void exportNdjson(Long userId, OutputStream out) {
+        noteCustomRepository.streamByUserId(userId, note -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(note));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Imports a JSON array or an NDJSON stream of notes.
+     * Records are validated one by one and inserted in batches of IMPORT_BATCH_SIZE,
+     * each batch in its own transaction; invalid records are reported, not fatal.
+     */
+    public ImportResult importNotes(InputStream in) {
+        Long userId = getCurrentUserId();
+        ImportProgress progress = new ImportProgress();
+        List<CreateNoteRequest> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        List<Integer> batchIndexes = new ArrayList<>(IMPORT_BATCH_SIZE);
+        int index = 0;
+
+        // a top-level array is unwrapped, so both formats read the same way
+        try (MappingIterator<CreateNoteRequest> records =
+                     objectMapper.readerFor(CreateNoteRequest.class).readValues(in)) {
+
+            while (records.hasNextValue()) {
+                CreateNoteRequest record;
+                try {
+                    record = records.nextValue();
+                } catch (JacksonException e) {
+                    // the iterator skips past the broken value on the next hasNextValue()
+                    progress.fail(index++, "Malformed record: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                String violation = firstViolation(record);
+                if (violation != null) {
+                    progress.fail(index++, violation);
+                    continue;
+                }
+
+                batch.add(record);
+                batchIndexes.add(index++);
+
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    flushImportBatch(userId, batch, batchIndexes, progress);
+                }
+            }
+        } catch (JacksonException e) {
+            // unrecoverable syntax error - keep what was read so far
+            progress.fail(index, "Malformed input, import stopped: " + e.getOriginalMessage());
+        }
+
+        flushImportBatch(userId, batch, batchIndexes, progress);
+        if (progress.imported > 0) {
+            noteSearchService.notesChanged(userId);
+        }
+        return progress.toResult();
+    }
+
+    private String firstViolation(CreateNoteRequest record) {
+        if (record == null) {
+            return "Record must be a JSON object";
+        }
+
+        Set<ConstraintViolation<CreateNoteRequest>> violations = validator.validate(record);
+        return violations.stream()
+                .findFirst()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .orElse(null);
+    }
+
+    private void flushImportBatch(Long userId, List<CreateNoteRequest> batch,
+                                  List<Integer> batchIndexes, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            noteCustomRepository.batchInsert(userId, batch);
+            progress.imported += batch.size();
+        } catch (DataAccessException e) {
+            // the batch transaction rolled back as a whole
+            for (Integer i : batchIndexes) {
+                progress.fail(i, "Could not be stored");
+            }
+        }
+
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    private static class ImportProgress {
+        int imported;
+        int failed;
+        final List<ImportResult.RecordError> errors = new ArrayList<>();
+
+        void fail(int index, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.RecordError(index, message));
+            }
+        }
+
+        ImportResult toResult() {
+            return new ImportResult(imported, failed, errors);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,26 @@
 package com.example.notebookapp.service;
 
+import com.example.notebookapp.exception.ServiceUnavailableException;
 import com.example.notebookapp.model.User;
 import com.example.notebookapp.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.example.notebookapp.security.password.PasswordHashingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
+    private final PasswordHashingService passwordHashing;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashing) {
         this.userRepository = userRepository;
+        this.passwordHashing = passwordHashing;
     }
 
     // Registration
@@ -21,20 +29,40 @@ public class UserService {
             throw new IllegalArgumentException("Email already in use");
         }
 
-        String hashedPassword = encoder.encode(password);
+        String hashedPassword = passwordHashing.hash(password);
         User user = new User(username, email, hashedPassword);
         return userRepository.save(user);
     }
 
     // Legacy login (still works, now secure)
     public User authenticate(String email, String password) {
-        User user = userRepository.findByEmail(email)
+        return findByCredentials(email, password)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
+    }
 
-        if (!encoder.matches(password, user.getPassword())) {
-            throw new IllegalArgumentException("Invalid credentials");
+    // Verifies the password and, on success, re-hashes it if stored below the configured cost/algorithm
+    public Optional<User> findByCredentials(String email, String password) {
+        User user = userRepository.findByEmail(email).orElse(null);
+
+        if (user == null || !passwordHashing.matches(password, user.getPassword())) {
+            return Optional.empty();
         }
 
-        return user;
+        if (passwordHashing.needsUpgrade(user.getPassword())) {
+            upgradePassword(user, password);
+        }
+
+        return Optional.of(user);
+    }
+
+    // best effort: a busy hashing pool must not turn a successful login into a 503
+    private void upgradePassword(User user, String password) {
+        try {
+            user.setPassword(passwordHashing.hash(password));
+            userRepository.save(user);
+            log.info("Upgraded password hash for user id={}", user.getId());
+        } catch (ServiceUnavailableException e) {
+            log.warn("Skipped password hash upgrade for user id={}: {}", user.getId(), e.getMessage());
+        }
     }
 }
@@ -0,0 +1,2 @@
+-- Supports the batched cleanup, which selects expired ids in small chunks
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at, id);
@@ -0,0 +1,47 @@
+-- Opt-in (profile partitioned-tokens, PostgreSQL only): range-partition refresh_tokens by expires_at.
+-- Idempotent: does nothing once the table is partitioned. RefreshTokenPartitionMaintenance creates
+-- the dated partitions and drops expired ones; rows outside them land in refresh_tokens_default.
+--
+-- A unique constraint on a partitioned table must include the partition key, so token_hash is only
+-- indexed here; hashes of 64 random bytes do not collide.
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_partitioned_table pt
+        JOIN pg_class c ON c.oid = pt.partrelid
+        WHERE c.relname = 'refresh_tokens'
+    ) THEN
+        ALTER TABLE refresh_tokens RENAME TO refresh_tokens_unpartitioned;
+
+        CREATE TABLE refresh_tokens (
+            id BIGINT NOT NULL DEFAULT nextval('refresh_tokens_id_seq'),
+            token_hash BYTEA NOT NULL,
+            user_id BIGINT NOT NULL,
+            expires_at TIMESTAMP NOT NULL,
+            revoked BOOLEAN NOT NULL DEFAULT FALSE,
+            revoked_at TIMESTAMP,
+            family_id UUID NOT NULL,
+            parent_id BIGINT,
+
+            CONSTRAINT pk_refresh_tokens PRIMARY KEY (id, expires_at),
+            CONSTRAINT fk_refresh_tokens_user
+                FOREIGN KEY (user_id)
+                REFERENCES users(id)
+                ON DELETE CASCADE
+        ) PARTITION BY RANGE (expires_at);
+
+        CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens DEFAULT;
+
+        CREATE INDEX idx_refresh_tokens_part_token_hash ON refresh_tokens (token_hash);
+        CREATE INDEX idx_refresh_tokens_part_family_id ON refresh_tokens (family_id);
+        CREATE INDEX idx_refresh_tokens_part_user_id ON refresh_tokens (user_id);
+        CREATE INDEX idx_refresh_tokens_part_expires_at ON refresh_tokens (expires_at, id);
+
+        INSERT INTO refresh_tokens (id, token_hash, user_id, expires_at, revoked, revoked_at, family_id, parent_id)
+        SELECT id, token_hash, user_id, expires_at, revoked, revoked_at, family_id, parent_id
+        FROM refresh_tokens_unpartitioned;
+
+        ALTER SEQUENCE refresh_tokens_id_seq OWNED BY refresh_tokens.id;
+        DROP TABLE refresh_tokens_unpartitioned;
+    END IF;
+END $$;
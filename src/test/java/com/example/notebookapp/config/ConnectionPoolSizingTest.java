@@ -0,0 +1,85 @@
+package com.example.notebookapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ConnectionPoolSizingTest {
+
+    @Test
+    void poolSize_isTwiceTheDatabaseCoresPlusSpindles() {
+        assertEquals(17, ConnectionPoolSizing.poolSize(8, 1, 1));
+        assertEquals(9, ConnectionPoolSizing.poolSize(4, 1, 1));
+    }
+
+    @Test
+    void poolSize_isSharedAmongInstances_roundingUp() {
+        assertEquals(6, ConnectionPoolSizing.poolSize(8, 1, 3));
+        assertEquals(2, ConnectionPoolSizing.poolSize(1, 0, 10));
+    }
+
+    @Test
+    void postProcess_setsMaximumPoolSizeFromProperties() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("db.pool.db-cores", "16")
+                .withProperty("db.pool.effective-spindles", "0")
+                .withProperty("db.pool.instances", "4");
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            Object result = new ConnectionPoolSizing(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+            assertSame(dataSource, result);
+            assertEquals(8, dataSource.getMaximumPoolSize());
+        }
+    }
+
+    @Test
+    void postProcess_keepsAnExplicitMaximumPoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(ConnectionPoolSizing.MAXIMUM_POOL_SIZE, "25")
+                .withProperty("db.pool.db-cores", "2");
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(25);
+            new ConnectionPoolSizing(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+            assertEquals(25, dataSource.getMaximumPoolSize());
+        }
+    }
+
+    @Test
+    void postProcess_keepsAMaximumPoolSizeSetThroughAnEnvironmentVariable() {
+        MockEnvironment environment = new MockEnvironment().withProperty("db.pool.db-cores", "2");
+        environment.getPropertySources().addFirst(new SystemEnvironmentPropertySource(
+                StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME,
+                Map.of("SPRING_DATASOURCE_HIKARI_MAXIMUMPOOLSIZE", "25")));
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(25);
+            new ConnectionPoolSizing(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+            assertEquals(25, dataSource.getMaximumPoolSize());
+        }
+    }
+
+    @Test
+    void postProcess_keepsAMaximumPoolSizeSetInCamelCase() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximumPoolSize", "25")
+                .withProperty("db.pool.db-cores", "2");
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(25);
+            new ConnectionPoolSizing(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+            assertEquals(25, dataSource.getMaximumPoolSize());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.notebookapp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final String prefix = "routing-" + UUID.randomUUID() + "-";
+
+    // in-memory databases live as long as one connection to them is open
+    private final List<Connection> keepAlive = new ArrayList<>();
+
+    @AfterEach
+    void closeDatabases() throws SQLException {
+        for (Connection connection : keepAlive) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void connections_rotateOverHealthyReplicas() throws Exception {
+        ReplicaRoutingDataSource routing = routing(start("primary"), replica("a", true), replica("b", true));
+
+        List<String> targets = List.of(databaseOf(routing), databaseOf(routing), databaseOf(routing), databaseOf(routing));
+
+        assertEquals(List.of("a", "b", "a", "b"), targets);
+    }
+
+    @Test
+    void failingReplica_isSkippedAndTakenOutOfRotation() throws Exception {
+        ReplicaRoutingDataSource.Replica down = replica("down", false);
+        ReplicaRoutingDataSource routing = routing(start("primary"), down, replica("up", true));
+
+        assertEquals("up", databaseOf(routing));
+        assertEquals("up", databaseOf(routing));
+        assertFalse(down.isHealthy());
+    }
+
+    @Test
+    void noHealthyReplica_fallsBackToThePrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing(start("primary"), replica("down", false));
+
+        assertEquals("primary", databaseOf(routing));
+    }
+
+    @Test
+    void healthCheck_putsARecoveredReplicaBackInRotation() throws Exception {
+        ReplicaRoutingDataSource.Replica replica = replica("late", false);
+        ReplicaRoutingDataSource routing = routing(start("primary"), replica);
+
+        routing.checkHealth();
+        assertFalse(replica.isHealthy());
+        assertEquals("primary", databaseOf(routing));
+
+        start("late");
+        routing.checkHealth();
+
+        assertTrue(replica.isHealthy());
+        assertEquals("late", databaseOf(routing));
+    }
+
+    private ReplicaRoutingDataSource routing(DataSource primary, ReplicaRoutingDataSource.Replica... replicas) {
+        return new ReplicaRoutingDataSource(primary, List.of(replicas), Duration.ofSeconds(1));
+    }
+
+    // IFEXISTS: connecting to a database that was never started fails, like a replica that is down
+    private ReplicaRoutingDataSource.Replica replica(String name, boolean running) throws SQLException {
+        if (running) {
+            start(name);
+        }
+        return new ReplicaRoutingDataSource.Replica(name, new DriverManagerDataSource(url(name) + ";IFEXISTS=TRUE", "sa", ""));
+    }
+
+    private DataSource start(String name) throws SQLException {
+        keepAlive.add(DriverManager.getConnection(url(name), "sa", ""));
+        return new DriverManagerDataSource(url(name), "sa", "");
+    }
+
+    private String url(String name) {
+        return "jdbc:h2:mem:" + prefix + name;
+    }
+
+    private String databaseOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet rs = connection.createStatement().executeQuery("SELECT DATABASE()")) {
+            rs.next();
+            return rs.getString(1).substring(prefix.length()).toLowerCase();
+        }
+    }
+}
@@ -4,26 +4,42 @@ import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import tools.jackson.databind.ObjectMapper;
 import com.example.notebookapp.dto.CreateUserRequest;
 import com.example.notebookapp.dto.LoginRequest;
+import com.example.notebookapp.model.Role;
 import com.example.notebookapp.model.User;
 import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.security.AuthenticatedUser;
+import com.example.notebookapp.security.jwt.JwtUtil;
+import com.example.notebookapp.security.jwt.VerifiedToken;
+import com.example.notebookapp.security.token.RefreshToken;
 import com.example.notebookapp.security.token.RefreshTokenRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 @Transactional
 class AuthenticationIntegrationTest {
 
@@ -31,6 +47,8 @@ class AuthenticationIntegrationTest {
     @Autowired private ObjectMapper     objectMapper;
     @Autowired private UserRepository   userRepository;
     @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private JwtUtil          jwtUtil;
+    @Autowired private MeterRegistry    meterRegistry;
     
     private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
 
@@ -86,6 +104,52 @@ class AuthenticationIntegrationTest {
                 .andExpect(cookie().httpOnly("refreshToken", true));
     }
 
+    @Test
+    void login_accessTokenCarriesUserIdAndRoleClaims() throws Exception {
+        String email = "claims@test.com";
+        String pass  = "ClaimsP@ss1";
+        User user = userRepository.save(new User("claimsuser", email, encoder.encode(pass)));
+
+        LoginRequest req = new LoginRequest();
+        req.setEmail(email);
+        req.setPassword(pass);
+
+        MvcResult result = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // JwtAuthFilter builds the principal from these claims without a users lookup
+        VerifiedToken token = jwtUtil.verify(result.getResponse().getCookie("accessToken").getValue());
+        AuthenticatedUser principal = token.getPrincipal();
+        assertEquals(user.getId(), principal.getId());
+        assertEquals(email, principal.getEmail());
+        assertEquals(Role.USER, principal.getRole());
+    }
+
+    @Test
+    void login_hashBelowConfiguredCost_isRehashedOnSuccess() throws Exception {
+        String email = "rehash@test.com";
+        String pass  = "RehashP@ss1";
+        User user = userRepository.save(
+                new User("rehashuser", email, new BCryptPasswordEncoder(4).encode(pass)));
+
+        LoginRequest req = new LoginRequest();
+        req.setEmail(email);
+        req.setPassword(pass);
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk());
+
+        // default target is bcrypt cost 12
+        String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertTrue(stored.startsWith("$2a$12$"));
+        assertTrue(encoder.matches(pass, stored));
+    }
+
     @Test
     void login_wrongPassword_returns401() throws Exception {
         userRepository.save(
@@ -117,6 +181,82 @@ class AuthenticationIntegrationTest {
                 .andExpect(jsonPath("$.error").value("Invalid credentials"));
     }
 
+    // REFRESH  (POST /auth/refresh  -  TokenController)
+
+    @Test
+    void refresh_rotationAndReuse_areCounted() throws Exception {
+        String email = "refresh@test.com";
+        String pass  = "RefreshP@ss1";
+        userRepository.save(new User("refreshuser", email, encoder.encode(pass)));
+
+        LoginRequest req = new LoginRequest();
+        req.setEmail(email);
+        req.setPassword(pass);
+
+        Cookie refreshCookie = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("refreshToken");
+
+        double rotated = rotations("rotated");
+        double revoked = rotations("revoked");
+
+        mockMvc.perform(post("/auth/refresh").cookie(refreshCookie))
+                .andExpect(status().isOk());
+        // the old token was consumed by the rotation
+        mockMvc.perform(post("/auth/refresh").cookie(refreshCookie))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(rotated + 1, rotations("rotated"));
+        assertEquals(revoked + 1, rotations("revoked"));
+        // controller timings come from Spring MVC's observation filter, one timer per status
+        assertTrue(meterRegistry.get("http.server.requests")
+                .tags("uri", "/auth/refresh", "status", "401").timer().count() >= 1);
+    }
+
+    @Test
+    void refresh_storesOnlyTheTokenDigest() throws Exception {
+        String email = "digest@test.com";
+        String pass  = "DigestP@ss1";
+        userRepository.save(new User("digestuser", email, encoder.encode(pass)));
+
+        LoginRequest req = new LoginRequest();
+        req.setEmail(email);
+        req.setPassword(pass);
+
+        String token = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie("refreshToken").getValue();
+
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(digest).orElseThrow();
+        assertEquals(32, stored.getTokenHash().length);
+        assertFalse(stored.isRevoked());
+    }
+
+    @Test
+    void refresh_expiredToken_returns401AndIsCountedAsExpired() throws Exception {
+        User user = userRepository.save(new User("expireduser", "expired@test.com", encoder.encode("ExpiredP@ss1")));
+        String token = "expired-refresh-token";
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        refreshTokenRepository.save(new RefreshToken(digest, user, Instant.now().minusSeconds(60), UUID.randomUUID(), null));
+
+        double expired = rotations("expired");
+
+        mockMvc.perform(post("/auth/refresh").cookie(new Cookie("refreshToken", token)))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(expired + 1, rotations("expired"));
+        assertFalse(refreshTokenRepository.findByTokenHash(digest).orElseThrow().isRevoked());
+    }
+
+    private double rotations(String result) {
+        return meterRegistry.get("refresh.token.rotations").tag("result", result).counter().count();
+    }
+
     // LOGOUT  (POST /auth/logout  -  LogoutController)
 
     @Test
@@ -0,0 +1,99 @@
+package com.example.notebookapp.integration;
+
+import com.example.notebookapp.dto.CreateNoteRequest;
+import com.example.notebookapp.model.Note;
+import com.example.notebookapp.model.Role;
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.NoteCustomRepository;
+import com.example.notebookapp.repository.NoteRepository;
+import com.example.notebookapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class IdAllocationIntegrationTest {
+
+    @Autowired private NoteRepository noteRepository;
+    @Autowired private NoteCustomRepository noteCustomRepository;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void jpaIds_comeFromOneSequenceBlock() {
+        User user = userRepository.saveAndFlush(new User("ids", "ids@test.com", "not-a-real-hash", Role.USER));
+
+        List<Note> saved = noteRepository.saveAllAndFlush(List.of(
+                new Note("a", "a", user.getId()),
+                new Note("b", "b", user.getId()),
+                new Note("c", "c", user.getId())));
+
+        // consecutive ids: no nextval per row
+        assertEquals(saved.get(0).getId() + 1, saved.get(1).getId());
+        assertEquals(saved.get(1).getId() + 1, saved.get(2).getId());
+    }
+
+    @Test
+    void jdbcInserts_andJpaBlocks_neverCollide() {
+        User user = userRepository.saveAndFlush(new User("ids", "ids@test.com", "not-a-real-hash", Role.USER));
+        List<Note> notes = new ArrayList<>();
+
+        // an insert through the column default spends a whole block on its one row;
+        // it still comes from the same sequence, so it never overlaps a JPA block
+        for (int i = 0; i < 120; i++) {
+            if (i % 3 == 0) {
+                jdbcTemplate.update("INSERT INTO notes (title, content, user_id) VALUES (?, ?, ?)",
+                        "jdbc", "jdbc", user.getId());
+            } else {
+                notes.add(noteRepository.saveAndFlush(new Note("jpa", "jpa", user.getId())));
+            }
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM notes WHERE user_id = ?", Long.class, user.getId());
+        Set<Long> unique = new HashSet<>(ids);
+        assertEquals(120, ids.size());
+        assertEquals(120, unique.size());
+        notes.forEach(note -> assertTrue(unique.contains(note.getId())));
+    }
+
+    @Test
+    void batchInsert_takesWholeBlocks_andNeverCollidesWithJpa() {
+        User user = userRepository.saveAndFlush(new User("ids", "ids@test.com", "not-a-real-hash", Role.USER));
+        // CreateNoteRequest has no setters
+        CreateNoteRequest request = objectMapper.convertValue(
+                Map.of("title", "batch", "content", "batch"), CreateNoteRequest.class);
+
+        noteCustomRepository.batchInsert(user.getId(), Collections.nCopies(30, request));
+        Note jpa = noteRepository.saveAndFlush(new Note("jpa", "jpa", user.getId()));
+        noteCustomRepository.batchInsert(user.getId(), Collections.nCopies(30, request));
+
+        List<Long> batchIds = jdbcTemplate.queryForList(
+                "SELECT id FROM notes WHERE user_id = ? AND title = 'batch' ORDER BY id", Long.class, user.getId());
+        assertEquals(60, batchIds.size());
+        assertEquals(60, new HashSet<>(batchIds).size());
+        assertFalse(batchIds.contains(jpa.getId()));
+
+        // one nextval per block, not per row: a chunk smaller than a block gets consecutive ids
+        for (int i = 1; i < 30; i++) {
+            assertEquals(batchIds.get(i - 1) + 1, batchIds.get(i));
+        }
+    }
+}
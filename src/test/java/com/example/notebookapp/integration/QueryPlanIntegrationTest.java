@@ -0,0 +1,258 @@
+package com.example.notebookapp.integration;
+
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.NoteCustomRepository;
+import com.example.notebookapp.repository.NoteRepository;
+import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.search.NoteSearchRepository;
+import com.example.notebookapp.security.token.RefreshTokenCustomRepository;
+import com.example.notebookapp.security.token.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Index advisor: calls every repository method against a seeded data set, records the
+ * statements Hibernate and JdbcTemplate actually send, with their parameters, and fails
+ * when the EXPLAIN of one reads a whole table or index instead of seeking.
+ * Call new repository methods in repositoryQueries_useIndexes; inserts are not checked.
+ * PostgreSQL full-text search is not covered on H2.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class QueryPlanIntegrationTest {
+
+    private static final int USERS = 50;
+    private static final int NOTES_PER_USER = 100;
+    private static final int TOKENS_PER_USER = 20;
+
+    // H2 prints the access path as a comment after each table: "/* public.idx: user_id = ?1 */"
+    // when seeking, and just the index name (or "<table>.tableScan") when scanning
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* ([\\w.\"]+) \\*/");
+
+    private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(select|update|delete|with)\\b");
+
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private NoteRepository noteRepository;
+    @Autowired private NoteCustomRepository noteCustomRepository;
+    @Autowired private NoteSearchRepository noteSearchRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private RefreshTokenCustomRepository refreshTokenCustomRepository;
+
+    private long userId;
+    private long noteId;
+    private byte[] tokenHash;
+    private UUID familyId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM notes");
+        jdbcTemplate.update("DELETE FROM users");
+
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            users.add(new Object[]{"plan" + u, "plan" + u + "@test.com", "not-a-real-hash"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password) VALUES (?, ?, ?)", users);
+
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+        List<Object[]> notes = new ArrayList<>();
+        List<Object[]> tokens = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Long id : userIds) {
+            for (int n = 0; n < NOTES_PER_USER; n++) {
+                notes.add(new Object[]{"Note " + n, "content " + n, id});
+            }
+            for (int t = 0; t < TOKENS_PER_USER; t++) {
+                UUID uuid = UUID.randomUUID();
+                byte[] hash = ByteBuffer.allocate(32).putLong(uuid.getMostSignificantBits())
+                        .putLong(uuid.getLeastSignificantBits()).putLong(id).putLong(t).array();
+                tokens.add(new Object[]{hash, id, now, uuid});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notes (title, content, user_id) VALUES (?, ?, ?)", notes);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO refresh_tokens (token_hash, user_id, expires_at, family_id) VALUES (?, ?, ?, ?)", tokens);
+
+        userId = userIds.get(USERS / 2);
+        noteId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM notes WHERE user_id = ?", Long.class, userId);
+        tokenHash = (byte[]) tokens.get(tokens.size() / 2)[0];
+        familyId = (UUID) tokens.get(tokens.size() / 2)[3];
+    }
+
+    @Test
+    void repositoryQueries_useIndexes() {
+        Instant now = Instant.now();
+        Map<String, Object[]> statements = RECORDER.record(() -> {
+            noteRepository.findAllByUserId(userId);
+            noteRepository.findByIdAndUserId(noteId, userId);
+            noteRepository.searchByTitle(userId, "note");
+
+            noteCustomRepository.findNotesByUserIdAndTitleContaining(userId, "note");
+            noteCustomRepository.findSummariesByUserId(userId, null, 50, 200);
+            noteCustomRepository.findSummariesByUserId(userId, noteId, 50, 200);
+            noteCustomRepository.streamByUserId(userId, note -> {});
+            noteCustomRepository.streamByUserIdFromPrimary(userId, note -> {});
+
+            noteSearchRepository.search(userId, "content note", 21, 0);
+            noteSearchRepository.findHitsByIds(userId, new long[]{noteId, noteId - 1}, "content");
+
+            userRepository.findByEmail("plan7@test.com");
+            User user = userRepository.findById(userId).orElseThrow();
+
+            refreshTokenRepository.findByTokenHash(tokenHash);
+            refreshTokenCustomRepository.consume(tokenHash, now);
+            refreshTokenRepository.revokeFamily(familyId, now);
+            refreshTokenRepository.revokeAllByUser(user, now);
+            refreshTokenCustomRepository.deleteExpiredBatch(now, 5000);
+
+            // last: it clears the persistence context
+            noteRepository.deleteByIdAndUserId(noteId, userId);
+        });
+
+        assertFalse(statements.isEmpty(), "no statements recorded");
+
+        List<String> scans = new ArrayList<>();
+        statements.forEach((sql, params) -> {
+            if (!EXPLAINABLE.matcher(sql.toLowerCase(Locale.ROOT)).find()) {
+                return;
+            }
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, params);
+            Matcher m = FULL_SCAN.matcher(plan);
+            if (m.find()) {
+                scans.add(m.group(1) + " <- " + sql);
+            }
+        });
+
+        assertTrue(scans.isEmpty(), "full scans:\n" + String.join("\n", scans));
+    }
+
+    /**
+     * Records each distinct prepared statement executed through the wrapped DataSource,
+     * with the parameters of its first execution. Batches are not recorded.
+     */
+    static final class StatementRecorder {
+
+        private Map<String, Object[]> statements;
+
+        synchronized Map<String, Object[]> record(Runnable work) {
+            statements = new LinkedHashMap<>();
+            try {
+                work.run();
+                return statements;
+            } finally {
+                statements = null;
+            }
+        }
+
+        // AutoCloseable too, so the container still closes the pool on shutdown
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    method.getName().equals("getConnection") ? connection((Connection) result) : result,
+                    AutoCloseable.class);
+        }
+
+        private Connection connection(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) ->
+                    method.getName().equals("prepareStatement")
+                            ? statement((PreparedStatement) result, (String) args[0])
+                            : result);
+        }
+
+        private PreparedStatement statement(PreparedStatement statement, String sql) {
+            TreeMap<Integer, Object> params = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    params.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    params.clear();
+                } else if (name.startsWith("execute") && !name.equals("executeBatch") && (args == null || args.length == 0)) {
+                    recorded(sql, params);
+                }
+                return result;
+            });
+        }
+
+        private synchronized void recorded(String sql, TreeMap<Integer, Object> params) {
+            if (statements != null && !statements.containsKey(sql)) {
+                Object[] values = new Object[params.isEmpty() ? 0 : params.lastKey()];
+                params.forEach((index, value) -> values[index - 1] = value);
+                statements.put(sql, values);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, AfterCall afterCall, Class<?>... more) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return afterCall.apply(method, args, result);
+            };
+            List<Class<?>> interfaces = new ArrayList<>(List.of(type));
+            for (Class<?> extra : more) {
+                if (extra.isInstance(target)) {
+                    interfaces.add(extra);
+                }
+            }
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), interfaces.toArray(new Class<?>[0]), handler);
+        }
+
+        private interface AfterCall {
+            Object apply(Method method, Object[] args, Object result) throws Throwable;
+        }
+    }
+}
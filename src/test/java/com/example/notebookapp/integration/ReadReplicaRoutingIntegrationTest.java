@@ -0,0 +1,174 @@
+package com.example.notebookapp.integration;
+
+import com.example.notebookapp.controller.AdminController;
+import com.example.notebookapp.dto.NotePage;
+import com.example.notebookapp.model.Role;
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.search.InMemoryNoteIndex;
+import com.example.notebookapp.search.NoteSearchService;
+import com.example.notebookapp.security.AuthenticatedUser;
+import com.example.notebookapp.security.token.RefreshTokenService;
+import com.example.notebookapp.service.NoteService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica. Nothing replicates
+ * between them, so rows seeded only on the replica show which database served a read.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "db.replica.enabled=true",
+        "notes.search.engine=memory",
+        "db.replica.urls=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    // the replica gets the same schema; Flyway in the application only migrates the primary
+    static {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .placeholders(Map.of("id_allocation_size", "50"))
+                .load()
+                .migrate();
+    }
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private NoteService noteService;
+    @Autowired private AdminController adminController;
+    @Autowired private RefreshTokenService refreshTokenService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private NoteSearchService noteSearchService;
+    @Autowired private InMemoryNoteIndex memoryIndex;
+
+    private long replicaUserId;
+
+    @BeforeEach
+    void seedReplica() {
+        replica.update("DELETE FROM notes");
+        replica.update("DELETE FROM users");
+        replica.update("INSERT INTO users (username, email, password) VALUES ('replica', 'replica-only@test.com', 'x')");
+        replicaUserId = replica.queryForObject(
+                "SELECT id FROM users WHERE email = 'replica-only@test.com'", Long.class);
+        replica.update("INSERT INTO notes (title, content, user_id) VALUES ('On the replica', 'only here', ?)",
+                replicaUserId);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_readsTheReplica_readWriteTransaction_readsThePrimary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        assertTrue(readOnly.execute(status -> userRepository.findByEmail("replica-only@test.com")).isPresent());
+        assertFalse(readWrite.execute(status -> userRepository.findByEmail("replica-only@test.com")).isPresent());
+    }
+
+    @Test
+    void noteReads_areServedByTheReplica() {
+        authenticate(new User("replica", "replica-only@test.com", "x", Role.USER), replicaUserId);
+
+        NotePage page = noteService.getAll(null, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("On the replica", noteService.getById(page.getItems().get(0).getId()).getTitle());
+    }
+
+    @Test
+    void adminStatistics_areServedByTheReplica() {
+        replica.update("INSERT INTO users (username, email, password) VALUES " +
+                "('r2', 'replica-2@test.com', 'x'), ('r3', 'replica-3@test.com', 'x')");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin@test.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        Map<?, ?> stats = (Map<?, ?>) adminController.getStatistics().getBody();
+
+        assertNotNull(stats);
+        assertEquals(3L, stats.get("totalUsers"));
+        // outside a transaction the connection is read-write, so this counts the primary
+        assertNotEquals(3L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+    }
+
+    // the token and its owner exist only on the primary
+    @Test
+    void refreshTokenRotation_staysOnThePrimary() {
+        User user = userRepository.save(new User("primary", "primary-only@test.com", "x", Role.USER));
+        String token = refreshTokenService.create(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.validateAndRotate(token);
+
+        assertNotNull(rotation);
+        assertTrue(userRepository.findById(rotation.getUserId()).isPresent());
+    }
+
+    // the replica lags: it lacks the note just written and still has one the primary deleted
+    @Test
+    void memorySearchIndex_isBuiltFromThePrimary() {
+        User user = userRepository.saveAndFlush(new User("indexed", "indexed@test.com", "x", Role.USER));
+        jdbcTemplate.update("INSERT INTO notes (title, content, user_id) VALUES ('Written on the primary', 'fresh', ?)",
+                user.getId());
+        long noteId = jdbcTemplate.queryForObject("SELECT id FROM notes WHERE user_id = ?", Long.class, user.getId());
+
+        replica.update("DELETE FROM notes");
+        replica.update("DELETE FROM users");
+        replica.update("INSERT INTO users (id, username, email, password) VALUES (?, 'indexed', 'indexed@test.com', 'x')",
+                user.getId());
+        replica.update("INSERT INTO notes (title, content, user_id) VALUES ('Lagging copy', 'deleted', ?)",
+                user.getId());
+
+        // the first search builds the index
+        noteSearchService.search(user.getId(), "written", 0, 10);
+
+        assertArrayEquals(new long[]{noteId}, memoryIndex.search(user.getId(), "written"));
+        assertEquals(0, memoryIndex.search(user.getId(), "lagging").length);
+    }
+
+    private void authenticate(User user, long id) {
+        try {
+            var field = User.class.getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(user, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
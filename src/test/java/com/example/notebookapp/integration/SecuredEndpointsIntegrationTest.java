@@ -15,20 +15,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 @Transactional
 class SecuredEndpointsIntegrationTest {
 
@@ -123,6 +128,18 @@ class SecuredEndpointsIntegrationTest {
                 .andExpect(jsonPath("$.title").value("ReadMe"));
     }
 
+    @Test
+    void notes_getAll_returnsRateLimitHeaders() throws Exception {
+        Cookie cookie = loginAndGetCookie(userA.getEmail(), USER_A_PW);
+
+        // test profile: one user-keyed group with burst 10000
+        mockMvc.perform(get("/notes").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Limit", "10000"))
+                .andExpect(header().exists("RateLimit-Remaining"))
+                .andExpect(header().exists("RateLimit-Reset"));
+    }
+
     @Test
     void notes_getAll_returnsOnlyOwnNotes() throws Exception {
         Cookie cookieA = loginAndGetCookie(userA.getEmail(), USER_A_PW);
@@ -150,12 +167,117 @@ class SecuredEndpointsIntegrationTest {
         // A sees 2
         mockMvc.perform(get("/notes").cookie(cookieA))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2));
 
         // B sees 1
         mockMvc.perform(get("/notes").cookie(cookieB))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1));
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void notes_getAll_pagesWithCursorAndReturnsSummariesOnly() throws Exception {
+        Cookie cookie = loginAndGetCookie(userA.getEmail(), USER_A_PW);
+
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/notes").cookie(cookie)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    Map.of("title", "N" + i, "content", "content " + i))))
+                    .andExpect(status().isCreated());
+        }
+
+        // newest first, summary fields only - full content comes from GET /notes/{id}
+        MvcResult firstPage = mockMvc.perform(get("/notes?limit=2").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("N3"))
+                .andExpect(jsonPath("$.items[0].contentLength").value(9))
+                .andExpect(jsonPath("$.items[0].snippet").value("content 3"))
+                .andExpect(jsonPath("$.items[0].content").doesNotExist())
+                .andExpect(jsonPath("$.next").isNumber())
+                .andReturn();
+
+        long next = objectMapper.readTree(
+                firstPage.getResponse().getContentAsString()).get("next").asLong();
+
+        mockMvc.perform(get("/notes?limit=2&cursor=" + next).cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("N1"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void notes_import_jsonArray_storesValidRecordsAndReportsInvalidOnes() throws Exception {
+        Cookie cookie = loginAndGetCookie(userA.getEmail(), USER_A_PW);
+
+        String body = objectMapper.writeValueAsString(List.of(
+                Map.of("title", "Imported 1", "content", "one"),
+                Map.of("title", "", "content", "blank title fails @NotBlank"),
+                Map.of("title", "Imported 2", "content", "two")));
+
+        mockMvc.perform(post("/notes/import")
+                        .cookie(cookie)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("title:")));
+
+        mockMvc.perform(get("/notes").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    @Test
+    void notes_import_ndjson_skipsMalformedLine() throws Exception {
+        Cookie cookie = loginAndGetCookie(userA.getEmail(), USER_A_PW);
+
+        String body = "{\"title\":\"L1\",\"content\":\"a\"}\n"
+                + "{\"title\":[1,2],\"content\":\"b\"}\n"
+                + "{\"title\":\"L3\",\"content\":\"c\"}\n";
+
+        mockMvc.perform(post("/notes/import")
+                        .cookie(cookie)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    @Test
+    void notes_search_matchesContentOfOwnNotesWithHighlightedSnippet() throws Exception {
+        Cookie cookieA = loginAndGetCookie(userA.getEmail(), USER_A_PW);
+        Cookie cookieB = loginAndGetCookie(userB.getEmail(), USER_B_PW);
+
+        mockMvc.perform(post("/notes").cookie(cookieA)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("title", "Groceries", "content", "Buy apples and a Banana bread"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/notes").cookie(cookieA)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("title", "Work", "content", "Quarterly report"))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/notes").cookie(cookieB)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("title", "B's banana", "content", "not visible to A"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/notes/search").param("q", "banana").cookie(cookieA))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits.length()").value(1))
+                .andExpect(jsonPath("$.hits[0].title").value("Groceries"))
+                .andExpect(jsonPath("$.hits[0].snippet").value(
+                        containsString("<mark>Banana</mark>")))
+                .andExpect(jsonPath("$.hasMore").value(false));
     }
 
     @Test
@@ -228,7 +350,7 @@ class SecuredEndpointsIntegrationTest {
         long noteId = objectMapper.readTree(
                 createRes.getResponse().getContentAsString()).get("id").asLong();
 
-        // B tries to delete -> NoteService.delete calls getById which throws ForbiddenException
+        // B tries to delete -> the owner-scoped DELETE matches nothing, the note exists -> ForbiddenException
         mockMvc.perform(delete("/notes/" + noteId).cookie(cookieB))
                 .andExpect(status().isForbidden());
 
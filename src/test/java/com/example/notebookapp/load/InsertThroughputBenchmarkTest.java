@@ -0,0 +1,102 @@
+package com.example.notebookapp.load;
+
+import com.example.notebookapp.model.Note;
+import com.example.notebookapp.model.Role;
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.NoteRepository;
+import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.security.token.RefreshTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Single-threaded insert throughput through JPA: notes saved in chunks (one transaction
+ * per chunk, as a bulk path would) and refresh tokens issued one per transaction, as
+ * login and refresh do. In-memory H2 has no network round trips, so the JDBC statements
+ * sent per 1000 rows are reported next to the rates; against PostgreSQL each is a round trip.
+ * Run with: mvn test -Pload-test -Dtest=InsertThroughputBenchmarkTest
+ */
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:insert-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class InsertThroughputBenchmarkTest {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 50_000);
+    private static final int NOTES_PER_TRANSACTION = 500;
+    private static final int TOKENS = Integer.getInteger("bench.tokens", 10_000);
+    private static final int ROUNDS = 3;
+
+    @Autowired private NoteRepository noteRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private RefreshTokenService refreshTokenService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertThroughput() {
+        User user = userRepository.save(new User("bench", "bench@test.com", "not-a-real-hash", Role.USER));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long notesBefore = noteRepository.count();
+
+        // the first round warms up the JIT and is not reported
+        double notesPerSecond = 0;
+        double tokensPerSecond = 0;
+        double noteStatements = 0;
+        double tokenStatements = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int done = 0; done < NOTES; done += NOTES_PER_TRANSACTION) {
+                List<Note> chunk = new ArrayList<>(NOTES_PER_TRANSACTION);
+                for (int i = 0; i < NOTES_PER_TRANSACTION; i++) {
+                    chunk.add(new Note("Note " + (done + i), "benchmark content", user.getId()));
+                }
+                tx.executeWithoutResult(status -> noteRepository.saveAll(chunk));
+            }
+            double notesRate = NOTES / seconds(start);
+            noteStatements = statistics.getPrepareStatementCount() * 1000.0 / NOTES;
+
+            statistics.clear();
+            start = System.nanoTime();
+            for (int i = 0; i < TOKENS; i++) {
+                tx.executeWithoutResult(status -> refreshTokenService.create(user));
+            }
+            double tokensRate = TOKENS / seconds(start);
+            tokenStatements = statistics.getPrepareStatementCount() * 1000.0 / TOKENS;
+
+            if (round > 0) {
+                notesPerSecond += notesRate / ROUNDS;
+                tokensPerSecond += tokensRate / ROUNDS;
+            }
+        }
+
+        System.out.printf("%n%-44s %12s %16s%n", "insert path", "rows/s", "statements/1000");
+        System.out.printf("%-44s %12.0f %16.0f%n", "notes, saveAll x" + NOTES_PER_TRANSACTION + " per transaction",
+                notesPerSecond, noteStatements);
+        System.out.printf("%-44s %12.0f %16.0f%n%n", "refresh tokens, one per transaction",
+                tokensPerSecond, tokenStatements);
+
+        assertEquals(notesBefore + (long) NOTES * (ROUNDS + 1), noteRepository.count());
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.notebookapp.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint latency samples and error counts, summarized as percentiles.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, int status, boolean expected) {
+        endpoints.computeIfAbsent(endpoint, e -> new Samples()).add(nanos, status, expected);
+    }
+
+    List<EndpointStats> summarize(double durationSeconds) {
+        List<EndpointStats> stats = new ArrayList<>();
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> stats.add(e.getValue().summarize(e.getKey(), durationSeconds)));
+        return stats;
+    }
+
+    static String format(List<EndpointStats> stats) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%n%-14s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (EndpointStats s : stats) {
+            out.append(String.format("%-14s %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.endpoint, s.count, s.errors, s.throughput, s.p50Ms, s.p90Ms, s.p99Ms, s.maxMs));
+        }
+        return out.toString();
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+        private final Map<Integer, Long> statuses = new LinkedHashMap<>();
+
+        synchronized void add(long latency, int status, boolean expected) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            statuses.merge(status, 1L, Long::sum);
+            if (!expected) {
+                errors++;
+            }
+        }
+
+        synchronized EndpointStats summarize(String endpoint, double durationSeconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointStats(endpoint, size, errors, size / durationSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    size == 0 ? 0 : toMillis(sorted[size - 1]), new LinkedHashMap<>(statuses));
+        }
+
+        // nearest-rank percentile
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return toMillis(sorted[Math.max(0, rank - 1)]);
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    static final class EndpointStats {
+        public final String endpoint;
+        public final long count;
+        public final long errors;
+        public final double throughput;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p99Ms;
+        public final double maxMs;
+        public final Map<Integer, Long> statuses;
+
+        EndpointStats(String endpoint, long count, long errors, double throughput,
+                      double p50Ms, double p90Ms, double p99Ms, double maxMs, Map<Integer, Long> statuses) {
+            this.endpoint = endpoint;
+            this.count = count;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.statuses = statuses;
+        }
+    }
+}
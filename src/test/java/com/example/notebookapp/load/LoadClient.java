@@ -0,0 +1,142 @@
+package com.example.notebookapp.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP client for the auth and notes flows. Access tokens go in the Authorization
+ * header; the refresh token is sent back as a cookie, as a browser would.
+ * Every call is timed into the recorder under its endpoint name.
+ */
+class LoadClient {
+
+    private static final Pattern NOTE_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    LoadClient(String baseUrl, LatencyRecorder recorder) {
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    /**
+     * One signed-in user. Login and refresh replace the tokens under the lock, since
+     * refresh tokens are single-use; note calls just read the current access token.
+     */
+    static final class Session {
+        final String email;
+        final String password;
+        final ConcurrentLinkedDeque<Long> noteIds = new ConcurrentLinkedDeque<>();
+        final ReentrantLock lock = new ReentrantLock();
+        volatile String accessToken;
+        volatile String refreshToken;
+
+        Session(String email, String password) {
+            this.email = email;
+            this.password = password;
+        }
+    }
+
+    HttpResponse<String> register(String username, String email, String password) throws Exception {
+        return send("register", HttpRequest.newBuilder(uri("/users/register"))
+                .header("Content-Type", "application/json")
+                .POST(json("{\"username\":\"" + username + "\",\"email\":\"" + email
+                        + "\",\"password\":\"" + password + "\"}")), 201);
+    }
+
+    boolean login(Session session) throws Exception {
+        HttpResponse<String> response = send("login", HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(json("{\"email\":\"" + session.email + "\",\"password\":\"" + session.password + "\"}")), 200);
+        return updateTokens(session, response);
+    }
+
+    boolean refresh(Session session) throws Exception {
+        HttpResponse<String> response = send("refresh", HttpRequest.newBuilder(uri("/auth/refresh"))
+                .header("Cookie", "refreshToken=" + session.refreshToken)
+                .POST(HttpRequest.BodyPublishers.noBody()), 200);
+        return updateTokens(session, response);
+    }
+
+    Optional<Long> createNote(Session session, String title, String content) throws Exception {
+        HttpResponse<String> response = send("create", authorized(session, "/notes")
+                .header("Content-Type", "application/json")
+                .POST(json("{\"title\":\"" + title + "\",\"content\":\"" + content + "\"}")), 201);
+        if (response.statusCode() != 201) {
+            return Optional.empty();
+        }
+        Matcher m = NOTE_ID.matcher(response.body());
+        return m.find() ? Optional.of(Long.parseLong(m.group(1))) : Optional.empty();
+    }
+
+    HttpResponse<String> listNotes(Session session, int limit) throws Exception {
+        return send("list", authorized(session, "/notes?limit=" + limit).GET(), 200);
+    }
+
+    HttpResponse<String> getNote(Session session, long id) throws Exception {
+        return send("get", authorized(session, "/notes/" + id).GET(), 200);
+    }
+
+    HttpResponse<String> deleteNote(Session session, long id) throws Exception {
+        return send("delete", authorized(session, "/notes/" + id).DELETE(), 204);
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + session.accessToken);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request, int expectedStatus)
+            throws Exception {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(
+                    request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode(),
+                    response.statusCode() == expectedStatus);
+            return response;
+        } catch (Exception e) {
+            // status 0: connection failure or client timeout
+            recorder.record(endpoint, System.nanoTime() - start, 0, false);
+            throw e;
+        }
+    }
+
+    private static boolean updateTokens(Session session, HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        cookie(response, "accessToken").ifPresent(t -> session.accessToken = t);
+        cookie(response, "refreshToken").ifPresent(t -> session.refreshToken = t);
+        return true;
+    }
+
+    private static Optional<String> cookie(HttpResponse<?> response, String name) {
+        String prefix = name + "=";
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith(prefix))
+                .map(c -> {
+                    int end = c.indexOf(';');
+                    return c.substring(prefix.length(), end < 0 ? c.length() : end);
+                })
+                .findFirst();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.notebookapp.load;
+
+import com.example.notebookapp.NotebookappApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The application on a random port against its own in-memory H2 database
+ * (PostgreSQL mode, as in application-test.properties), with rate limits lifted.
+ */
+class LoadTestApp implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    private LoadTestApp(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    static LoadTestApp start(String name, List<String> extraProfiles, String... extraProperties) {
+        List<String> profiles = new ArrayList<>(List.of("test"));
+        profiles.addAll(extraProfiles);
+
+        List<String> properties = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + name
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "--rate-limit.groups[0].requests-per-minute=100000000",
+                "--rate-limit.groups[0].burst=100000000",
+                "--logging.level.root=WARN"));
+        for (String property : extraProperties) {
+            properties.add("--" + property);
+        }
+
+        // command-line arguments, so they win over application-test.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(NotebookappApplication.class)
+                .profiles(profiles.toArray(new String[0]))
+                .run(properties.toArray(new String[0]));
+        return new LoadTestApp(context);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.notebookapp.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open-loop load against the full HTTP stack on an embedded H2 database.
+ * Seeds users and notes directly, signs every user in, then fires requests at a fixed
+ * arrival rate with a login / refresh / list / get / create / delete mix and reports
+ * per-endpoint latency percentiles and throughput (also written to target/load-test-report.json).
+ * Runs with the prod profile's connection pool settings by default, and reports how long
+ * requests waited for and held connections; any pool timeout fails the run.
+ *
+ * Run with: mvn test -Pload-test -Dload.users=100 -Dload.rate=300 -Dload.duration=PT30S
+ * (-Dload.profiles= for the default pool, -Dload.dbCores=N to size the pool for another database)
+ */
+@Tag("load")
+class NotesLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final int NOTES_PER_USER = Integer.getInteger("load.notesPerUser", 20);
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private static final int WORKERS = Integer.getInteger("load.workers", 200);
+    private static final String PROFILES = System.getProperty("load.profiles", "prod");
+    private static final String DB_CORES = System.getProperty("load.dbCores", "0");
+    private static final String PASSWORD = "LoadTestPass1!";
+
+    // cumulative weights out of 100
+    private static final int LOGIN = 2;
+    private static final int REFRESH = LOGIN + 5;
+    private static final int CREATE = REFRESH + 15;
+    private static final int DELETE = CREATE + 8;
+    private static final int GET = DELETE + 25;
+
+    @Test
+    void mixedWorkload_atFixedArrivalRate() throws Exception {
+        // a cheaper bcrypt cost keeps logins from dominating the mix; pass -Dload.bcryptCost=12 to match prod
+        String cost = System.getProperty("load.bcryptCost", "10");
+
+        List<String> profiles = PROFILES.isBlank() ? List.of() : List.of(PROFILES.split(","));
+
+        try (LoadTestApp app = LoadTestApp.start("notes", profiles,
+                "security.password.bcrypt.cost=" + cost,
+                "security.password.bcrypt.calibrate=false",
+                "db.pool.db-cores=" + DB_CORES)) {
+            List<LoadClient.Session> sessions = seed(app);
+
+            LatencyRecorder warmup = new LatencyRecorder();
+            signIn(new LoadClient(app.baseUrl(), warmup), sessions);
+            run(new LoadClient(app.baseUrl(), warmup), warmup, sessions, WARMUP);
+
+            PoolStats.Snapshot poolBefore = PoolStats.snapshot(app.bean(MeterRegistry.class));
+            LatencyRecorder recorder = new LatencyRecorder();
+            run(new LoadClient(app.baseUrl(), recorder), recorder, sessions, DURATION);
+            PoolStats pool = PoolStats.since(poolBefore, app.bean(MeterRegistry.class));
+
+            List<LatencyRecorder.EndpointStats> stats = recorder.summarize(DURATION.toMillis() / 1000.0);
+            System.out.printf("%n%d users, %d notes each, %d req/s for %s%s%n%s%n",
+                    USERS, NOTES_PER_USER, RATE, DURATION, LatencyRecorder.format(stats), pool.format());
+            writeReport(stats, pool);
+
+            assertEquals(0, pool.timeouts, "connection pool timeouts");
+
+            for (LatencyRecorder.EndpointStats s : stats) {
+                assertTrue(s.count > 0, s.endpoint);
+                for (Map.Entry<Integer, Long> status : s.statuses.entrySet()) {
+                    // 503 is the hashing pool shedding sign-ins by design, anything else 5xx is a bug
+                    int code = status.getKey();
+                    assertTrue(code > 0 && (code < 500 || code == 503),
+                            s.endpoint + " returned " + status.getKey() + " x" + status.getValue());
+                }
+            }
+        }
+    }
+
+    // bypasses registration so seeding N users costs one password hash, not N
+    private List<LoadClient.Session> seed(LoadTestApp app) {
+        JdbcTemplate jdbc = app.bean(JdbcTemplate.class);
+        String hash = app.bean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<Object[]> users = new ArrayList<>();
+        List<LoadClient.Session> sessions = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String email = "load-user-" + i + "@test.com";
+            users.add(new Object[]{"loaduser" + i, email, hash});
+            sessions.add(new LoadClient.Session(email, PASSWORD));
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, email, password) VALUES (?, ?, ?)", users);
+
+        for (LoadClient.Session session : sessions) {
+            Long userId = jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, session.email);
+            List<Object[]> notes = new ArrayList<>();
+            for (int n = 0; n < NOTES_PER_USER; n++) {
+                notes.add(new Object[]{"Seeded note " + n, "seeded load test content " + n, userId});
+            }
+            jdbc.batchUpdate("INSERT INTO notes (title, content, user_id) VALUES (?, ?, ?)", notes);
+            session.noteIds.addAll(jdbc.queryForList(
+                    "SELECT id FROM notes WHERE user_id = ? ORDER BY id", Long.class, userId));
+        }
+        return sessions;
+    }
+
+    private void signIn(LoadClient client, List<LoadClient.Session> sessions) throws Exception {
+        for (LoadClient.Session session : sessions) {
+            assertTrue(client.login(session), "login failed for " + session.email);
+        }
+    }
+
+    /**
+     * Arrivals are scheduled independently of completions, so a slow server builds a
+     * backlog instead of silently lowering the offered load. The "(queued)" row is the
+     * delay between an arrival's scheduled time and a worker picking it up.
+     */
+    private void run(LoadClient client, LatencyRecorder recorder, List<LoadClient.Session> sessions,
+                     Duration duration) throws Exception {
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long start = System.nanoTime();
+        long total = duration.toNanos() / periodNanos;
+
+        try {
+            for (long i = 0; i < total; i++) {
+                long scheduledAt = start + i * periodNanos;
+                arrivals.schedule(() -> workers.execute(() -> {
+                    recorder.record("(queued)", System.nanoTime() - scheduledAt, 200, true);
+                    LoadClient.Session session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+                    try {
+                        step(client, session);
+                    } catch (Exception e) {
+                        // already recorded as status 0 by the client
+                    }
+                }), scheduledAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            arrivals.shutdown();
+            arrivals.awaitTermination(duration.toSeconds() + 10, TimeUnit.SECONDS);
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(60, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void step(LoadClient client, LoadClient.Session session) throws Exception {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+
+        // refresh tokens are single-use: one rotation per session at a time
+        if (roll < REFRESH && session.lock.tryLock()) {
+            try {
+                if (roll < LOGIN) {
+                    client.login(session);
+                } else if (!client.refresh(session)) {
+                    client.login(session);
+                }
+            } finally {
+                session.lock.unlock();
+            }
+        } else if (roll >= REFRESH && roll < CREATE) {
+            client.createNote(session, "Load note", "created under load").ifPresent(session.noteIds::addLast);
+        } else if (roll >= CREATE && roll < DELETE) {
+            Long id = session.noteIds.pollFirst();
+            if (id != null) {
+                client.deleteNote(session, id);
+            }
+        } else if (roll >= DELETE && roll < GET) {
+            Long id = session.noteIds.peekLast();
+            if (id != null) {
+                client.getNote(session, id);
+            }
+        } else {
+            client.listNotes(session, 20);
+        }
+    }
+
+    private void writeReport(List<LatencyRecorder.EndpointStats> stats, PoolStats pool) throws Exception {
+        Path report = Path.of("target", "load-test-report.json");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, JsonMapper.builder().build().writerWithDefaultPrettyPrinter()
+                .writeValueAsString(Map.of(
+                        "users", USERS,
+                        "notesPerUser", NOTES_PER_USER,
+                        "ratePerSecond", RATE,
+                        "durationSeconds", DURATION.toSeconds(),
+                        "endpoints", stats,
+                        "connectionPool", pool)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.notebookapp.load;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari pool metrics over a measured interval: time spent waiting for a connection,
+ * time connections were held, and acquisitions that timed out. Maxima are the
+ * registry's recent-window values.
+ */
+final class PoolStats {
+
+    public final int maxConnections;
+    public final long acquisitions;
+    public final double acquireMeanMs;
+    public final double acquireMaxMs;
+    public final double usageMeanMs;
+    public final double usageMaxMs;
+    public final long timeouts;
+
+    private PoolStats(int maxConnections, long acquisitions, double acquireMeanMs, double acquireMaxMs,
+                      double usageMeanMs, double usageMaxMs, long timeouts) {
+        this.maxConnections = maxConnections;
+        this.acquisitions = acquisitions;
+        this.acquireMeanMs = acquireMeanMs;
+        this.acquireMaxMs = acquireMaxMs;
+        this.usageMeanMs = usageMeanMs;
+        this.usageMaxMs = usageMaxMs;
+        this.timeouts = timeouts;
+    }
+
+    static Snapshot snapshot(MeterRegistry registry) {
+        Timer acquire = registry.get("hikaricp.connections.acquire").timer();
+        Timer usage = registry.get("hikaricp.connections.usage").timer();
+        Counter timeout = registry.get("hikaricp.connections.timeout").counter();
+        return new Snapshot(acquire.count(), acquire.totalTime(TimeUnit.NANOSECONDS),
+                usage.count(), usage.totalTime(TimeUnit.NANOSECONDS), (long) timeout.count());
+    }
+
+    static PoolStats since(Snapshot before, MeterRegistry registry) {
+        Snapshot after = snapshot(registry);
+        Timer acquire = registry.get("hikaricp.connections.acquire").timer();
+        Timer usage = registry.get("hikaricp.connections.usage").timer();
+        Gauge max = registry.get("hikaricp.connections.max").gauge();
+
+        long acquisitions = after.acquireCount - before.acquireCount;
+        long releases = after.usageCount - before.usageCount;
+        return new PoolStats(
+                (int) max.value(),
+                acquisitions,
+                meanMs(after.acquireNanos - before.acquireNanos, acquisitions),
+                acquire.max(TimeUnit.MILLISECONDS),
+                meanMs(after.usageNanos - before.usageNanos, releases),
+                usage.max(TimeUnit.MILLISECONDS),
+                after.timeouts - before.timeouts);
+    }
+
+    String format() {
+        return String.format("%-14s %8s %8s %12s %12s %12s %12s%n%-14s %8d %8d %12.3f %12.2f %12.2f %12.2f%n",
+                "pool", "size", "timeouts", "wait avg ms", "wait max ms", "held avg ms", "held max ms",
+                "connections", maxConnections, timeouts, acquireMeanMs, acquireMaxMs, usageMeanMs, usageMaxMs);
+    }
+
+    private static double meanMs(double totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    static final class Snapshot {
+        final long acquireCount;
+        final double acquireNanos;
+        final long usageCount;
+        final double usageNanos;
+        final long timeouts;
+
+        Snapshot(long acquireCount, double acquireNanos, long usageCount, double usageNanos, long timeouts) {
+            this.acquireCount = acquireCount;
+            this.acquireNanos = acquireNanos;
+            this.usageCount = usageCount;
+            this.usageNanos = usageNanos;
+            this.timeouts = timeouts;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.notebookapp.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the app twice, on platform threads and with the virtual-threads profile,
+ * and drives the same closed-loop GET /notes load against each.
+ * Run with: mvn test -Pload-test (JDK 21+)
+ */
+@Tag("load")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadTest {
+
+    private static final int CLIENTS = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.ofSeconds(20);
+    private static final String PASSWORD = "LoadTestPass1!";
+
+    @Test
+    void virtualThreads_comparedToPlatformThreads() throws Exception {
+        Result platform = measure("platform");
+        Result virtual = measure("virtual-threads");
+
+        System.out.printf("%n%-16s %12s %10s%n", "mode", "req/s", "errors");
+        System.out.printf("%-16s %12.1f %10d%n", "platform", platform.throughput, platform.errors);
+        System.out.printf("%-16s %12.1f %10d%n%n", "virtual-threads", virtual.throughput, virtual.errors);
+
+        assertTrue(platform.throughput > 0);
+        assertTrue(virtual.throughput > 0);
+    }
+
+    private Result measure(String mode) throws Exception {
+        List<String> profiles = mode.equals("platform") ? List.of() : List.of(mode);
+
+        try (LoadTestApp app = LoadTestApp.start(mode, profiles)) {
+            // guards against measuring the wrong mode: the profile and the harness overrides
+            // must win over application-test.properties
+            Environment environment = app.bean(Environment.class);
+            assertEquals(!profiles.isEmpty(),
+                    environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+            assertEquals("100000000", environment.getProperty("rate-limit.groups[0].burst"));
+
+            String baseUrl = app.baseUrl();
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+            LoadClient client = new LoadClient(baseUrl, new LatencyRecorder());
+            LoadClient.Session session = new LoadClient.Session("load@test.com", PASSWORD);
+            assertEquals(201, client.register("loaduser", session.email, PASSWORD).statusCode());
+            assertTrue(client.login(session));
+            for (int i = 0; i < 20; i++) {
+                assertTrue(client.createNote(session, "Note " + i, "load test content " + i).isPresent());
+            }
+
+            HttpRequest list = HttpRequest.newBuilder(URI.create(baseUrl + "/notes"))
+                    .header("Authorization", "Bearer " + session.accessToken)
+                    .GET()
+                    .build();
+
+            run(http, list, WARMUP);
+            return run(http, list, DURATION);
+        }
+    }
+
+    // closed loop: every client sends its next request as soon as the previous one completes
+    private Result run(HttpClient http, HttpRequest request, Duration duration) throws Exception {
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            (response.statusCode() == 200 ? ok : errors).incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        return new Result(ok.get() / (double) duration.toSeconds(), errors.get());
+    }
+
+    private static final class Result {
+        final double throughput;
+        final long errors;
+
+        Result(double throughput, long errors) {
+            this.throughput = throughput;
+            this.errors = errors;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.notebookapp.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnippetsTest {
+
+    @Test
+    void highlight_ShouldEscapeNoteTextAndMarkMatches() {
+        String snippet = Snippets.highlight("<img src=x onerror=alert(1)> Bananas & \"cream\"",
+                List.of("bananas"), 160);
+
+        assertEquals("&lt;img src=x onerror=alert(1)&gt; <mark>Bananas</mark> &amp; &quot;cream&quot;", snippet);
+    }
+
+    @Test
+    void highlight_ShouldNotMatchInsideEntities() {
+        assertEquals("a &lt; b", Snippets.highlight("a < b", List.of("lt"), 160));
+    }
+
+    @Test
+    void highlight_WithoutTerms_ShouldStillEscape() {
+        assertEquals("&lt;b&gt;bold&lt;/b&gt;", Snippets.highlight("<b>bold</b>", List.of(), 160));
+    }
+}
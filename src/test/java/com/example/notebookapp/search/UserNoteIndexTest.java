@@ -0,0 +1,74 @@
+package com.example.notebookapp.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserNoteIndexTest {
+
+    private UserNoteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserNoteIndex();
+        index.add(1L, "Groceries", "Buy apples and bananas");
+        index.add(2L, "Banana bread", "Flour, sugar, bananas");
+        index.add(3L, "Work", "Quarterly report");
+    }
+
+    @Test
+    void search_ExactTerm_ShouldReturnNewestFirst() {
+        assertArrayEquals(new long[]{2L, 1L}, index.search("bananas"));
+    }
+
+    @Test
+    void search_MultipleTerms_ShouldRequireAll() {
+        assertArrayEquals(new long[]{2L}, index.search("Bananas FLOUR"));
+    }
+
+    @Test
+    void search_PrefixTerm_ShouldMatchAllCompletions() {
+        // "banana" (note 2 title) and "bananas" (notes 1 and 2 content)
+        assertArrayEquals(new long[]{2L, 1L}, index.search("ban*"));
+        assertArrayEquals(new long[0], index.search("ban"));
+    }
+
+    @Test
+    void remove_ShouldDropNoteAndShrinkEstimate() {
+        long before = index.estimatedBytes();
+
+        index.remove(3L);
+
+        assertArrayEquals(new long[0], index.search("report"));
+        assertTrue(index.estimatedBytes() < before);
+    }
+
+    @Test
+    void remove_ShouldKeepTermsSharedWithOtherNotes() {
+        index.remove(1L);
+
+        assertArrayEquals(new long[]{2L}, index.search("bananas"));
+        assertArrayEquals(new long[0], index.search("apples"));
+    }
+
+    @Test
+    void addThenRemove_ShouldRestoreEstimate() {
+        UserNoteIndex empty = new UserNoteIndex();
+        long initial = empty.estimatedBytes();
+
+        empty.add(7L, "Title", "Some content");
+        empty.add(7L, "Title", "Some content edited");
+        empty.remove(7L);
+
+        assertEquals(initial, empty.estimatedBytes());
+        assertArrayEquals(new long[0], empty.search("edited"));
+    }
+
+    @Test
+    void add_SameNoteTwice_ShouldKeepSinglePosting() {
+        index.add(1L, "Groceries", "Buy apples and bananas");
+
+        assertArrayEquals(new long[]{1L}, index.search("apples"));
+    }
+}
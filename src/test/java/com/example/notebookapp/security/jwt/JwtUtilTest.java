@@ -0,0 +1,54 @@
+package com.example.notebookapp.security.jwt;
+
+import com.example.notebookapp.model.Role;
+import com.example.notebookapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "THIS_IS_A_TEST_SECRET_KEY_FOR_TESTING_PURPOSES_ONLY_AT_LEAST_32_CHARS";
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        user = new User("jwtuser", "jwt@test.com", "hashedpass", Role.ADMIN);
+        var field = User.class.getDeclaredField("id");
+        field.setAccessible(true);
+        field.set(user, 7L);
+    }
+
+    @Test
+    void verify_SameTokenTwice_ShouldReturnCachedResult() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken(user);
+
+        VerifiedToken first = jwtUtil.verify(token);
+
+        assertNotNull(first);
+        assertEquals("jwt@test.com", first.getEmail());
+        assertEquals(7L, first.getPrincipal().getId());
+        assertEquals(Role.ADMIN, first.getPrincipal().getRole());
+        assertSame(first, jwtUtil.verify(token));
+    }
+
+    @Test
+    void verify_WhenSignatureTampered_ShouldReturnNull() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(jwtUtil.verify(tampered));
+        assertNotNull(jwtUtil.verify(token));
+    }
+
+    @Test
+    void verify_WhenExpired_ShouldReturnNull() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, -1_000, 100);
+
+        assertNull(jwtUtil.verify(jwtUtil.generateToken(user)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.notebookapp.security.password;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModularCryptPasswordEncoderTest {
+
+    private static final String PASSWORD = "CorrectHorse1!";
+
+    @Test
+    void bcrypt_WhenStoredCostBelowTarget_ShouldRequestUpgrade() {
+        ModularCryptPasswordEncoder encoder = ModularCryptPasswordEncoder.bcrypt(6);
+        String weak = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(encoder.matches(PASSWORD, weak));
+        assertTrue(encoder.upgradeEncoding(weak));
+
+        String current = encoder.encode(PASSWORD);
+        assertTrue(current.startsWith("$2a$06$"));
+        assertFalse(encoder.upgradeEncoding(current));
+        // stronger than target is left alone
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(7).encode(PASSWORD)));
+    }
+
+    @Test
+    void argon2_ShouldVerifyBcryptHashesAndUpgradeThem() {
+        ModularCryptPasswordEncoder encoder = ModularCryptPasswordEncoder.argon2(4);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(encoder.matches(PASSWORD, legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String current = encoder.encode(PASSWORD);
+        assertTrue(current.startsWith("$argon2id$"));
+        assertTrue(encoder.matches(PASSWORD, current));
+        assertFalse(encoder.matches("WrongHorse1!", current));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void matches_WhenHashFormatUnknown_ShouldReturnFalse() {
+        ModularCryptPasswordEncoder encoder = ModularCryptPasswordEncoder.bcrypt(4);
+
+        assertFalse(encoder.matches(PASSWORD, PASSWORD));
+        assertFalse(encoder.upgradeEncoding(PASSWORD));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.notebookapp.security.password;
+
+import com.example.notebookapp.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void hashAndMatches_ShouldRoundTrip() {
+        PasswordHashingService service = new PasswordHashingService(
+                new SimpleMeterRegistry(), ModularCryptPasswordEncoder.bcrypt(12), 1, 4, Duration.ofSeconds(30));
+        try {
+            String hash = service.hash("CorrectHorse1!");
+
+            assertTrue(service.matches("CorrectHorse1!", hash));
+            assertFalse(service.matches("WrongHorse1!", hash));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void hash_WhenWaitExceedsTimeout_ShouldThrowServiceUnavailable() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // a cost-12 hash takes far longer than 1ms
+        PasswordHashingService service = new PasswordHashingService(
+                registry, ModularCryptPasswordEncoder.bcrypt(12), 1, 4, Duration.ofMillis(1));
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> service.hash("CorrectHorse1!"));
+            assertEquals(1.0, registry.get("password.hashing.rejected").tag("reason", "timeout").counter().count());
+        } finally {
+            service.shutdown();
+        }
+    }
+}
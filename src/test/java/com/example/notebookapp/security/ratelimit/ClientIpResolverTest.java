@@ -0,0 +1,45 @@
+package com.example.notebookapp.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(List.of("10.0.0.0/8", "192.168.1.5"));
+
+    private MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    @Test
+    void resolve_WhenPeerUntrusted_ShouldIgnoreForwardedFor() {
+        assertEquals("203.0.113.9", resolver.resolve(request("203.0.113.9", "1.1.1.1")));
+    }
+
+    @Test
+    void resolve_WhenPeerTrusted_ShouldReturnFirstUntrustedHopFromTheRight() {
+        // client spoofs a leading entry; the proxies append the real address
+        MockHttpServletRequest request = request("10.0.0.2", "6.6.6.6, 198.51.100.7, 192.168.1.5");
+
+        assertEquals("198.51.100.7", resolver.resolve(request));
+    }
+
+    @Test
+    void resolve_WhenEveryHopTrusted_ShouldReturnLeftmostHop() {
+        assertEquals("10.1.1.1", resolver.resolve(request("10.0.0.2", "10.1.1.1,10.2.2.2")));
+    }
+
+    @Test
+    void resolve_WhenHopIsNotAnIpLiteral_ShouldTreatItAsClient() {
+        assertEquals("evil.example.com", resolver.resolve(request("10.0.0.2", "evil.example.com")));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.notebookapp.security.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The groups shipped in application.properties. application-test.properties replaces them
+ * with a single lifted limit, so they are bound from the file here instead.
+ */
+class RateLimitFilterTest {
+
+    private TokenBucketRateLimiter limiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(
+                new ResourcePropertySource(new ClassPathResource("application.properties")));
+        RateLimitProperties properties = Binder.get(environment)
+                .bind("rate-limit", RateLimitProperties.class)
+                .get();
+
+        limiter = new TokenBucketRateLimiter(properties);
+        filter = new RateLimitFilter(limiter, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void passwordEndpoints_areInTheLoginGroup() {
+        for (String path : new String[]{"/auth/login", "/users/login", "/users/register", "/users/register-form"}) {
+            assertEquals("login", limiter.groupFor(path).getName(), path);
+        }
+    }
+
+    @Test
+    void usersLogin_sixthRapidAttempt_returns429() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, post("/users/login").getStatus());
+        }
+
+        MockHttpServletResponse rejected = post("/users/login");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader("RateLimit-Remaining"));
+    }
+
+    private MockHttpServletResponse post(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr("203.0.113.7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
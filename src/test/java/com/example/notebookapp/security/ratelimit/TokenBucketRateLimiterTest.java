@@ -0,0 +1,99 @@
+package com.example.notebookapp.security.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private long now;
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        now = TimeUnit.HOURS.toNanos(1);
+
+        RateLimitProperties.Group auth = new RateLimitProperties.Group();
+        auth.setName("auth");
+        auth.setPaths(List.of("/auth/login"));
+        auth.setRequestsPerMinute(60);  // one token per second
+        auth.setBurst(3);
+
+        RateLimitProperties.Group notes = new RateLimitProperties.Group();
+        notes.setName("notes");
+        notes.setPaths(List.of("/notes/**"));
+
+        properties = new RateLimitProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(10));
+        properties.setMaxKeysPerGroup(2);
+        properties.setGroups(List.of(auth, notes));
+    }
+
+    private TokenBucketRateLimiter limiter() {
+        return new TokenBucketRateLimiter(properties, () -> now);
+    }
+
+    @Test
+    void groupFor_ShouldMatchExactPathsAndPrefixes() {
+        TokenBucketRateLimiter limiter = limiter();
+
+        assertEquals("auth", limiter.groupFor("/auth/login").getName());
+        assertEquals("notes", limiter.groupFor("/notes").getName());
+        assertEquals("notes", limiter.groupFor("/notes/42").getName());
+        assertNull(limiter.groupFor("/notesx"));
+        assertNull(limiter.groupFor("/auth/refresh"));
+    }
+
+    @Test
+    void tryAcquire_WhenBurstSpent_ShouldRejectUntilRefilled() {
+        TokenBucketRateLimiter limiter = limiter();
+        TokenBucketRateLimiter.Group group = limiter.groupFor("/auth/login");
+
+        assertEquals(2, limiter.tryAcquire(group, "1.2.3.4"));
+        assertEquals(1, limiter.tryAcquire(group, "1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire(group, "1.2.3.4"));
+
+        long result = limiter.tryAcquire(group, "1.2.3.4");
+        assertTrue(result < 0);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), -result);
+
+        // other keys have their own bucket
+        assertEquals(2, limiter.tryAcquire(group, "5.6.7.8"));
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, limiter.tryAcquire(group, "1.2.3.4"));
+    }
+
+    @Test
+    void tryAcquire_WhenGroupFull_ShouldShareOverflowBucket() {
+        TokenBucketRateLimiter limiter = limiter();
+        TokenBucketRateLimiter.Group group = limiter.groupFor("/auth/login");
+
+        limiter.tryAcquire(group, "a");
+        limiter.tryAcquire(group, "b");
+        assertEquals(2, limiter.tryAcquire(group, "c"));
+        assertEquals(1, limiter.tryAcquire(group, "d"));
+        assertEquals(2, group.size());
+    }
+
+    @Test
+    void evictIdle_ShouldDropOnlyBucketsIdlePastTimeout() {
+        TokenBucketRateLimiter limiter = limiter();
+        TokenBucketRateLimiter.Group group = limiter.groupFor("/auth/login");
+
+        limiter.tryAcquire(group, "old");
+        now += TimeUnit.MINUTES.toNanos(10);
+        limiter.tryAcquire(group, "recent");
+        now += TimeUnit.SECONDS.toNanos(5);
+
+        limiter.evictIdle();
+
+        assertEquals(1, group.size());
+        assertEquals(2, limiter.tryAcquire(group, "old"));
+    }
+}
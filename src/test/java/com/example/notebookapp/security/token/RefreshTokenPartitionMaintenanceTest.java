@@ -0,0 +1,51 @@
+package com.example.notebookapp.security.token;
+
+import com.example.notebookapp.security.token.RefreshTokenPartitionMaintenance.Interval;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshTokenPartitionMaintenanceTest {
+
+    // a Saturday
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    @Test
+    void daily_coversEveryExpiryIssuedToday() {
+        List<LocalDate> starts = RefreshTokenPartitionMaintenance.periodsToCreate(TODAY, Interval.DAILY, 7);
+
+        assertEquals(TODAY, starts.get(0));
+        assertEquals(TODAY.plusDays(8), starts.get(starts.size() - 1));
+        assertEquals(9, starts.size());
+    }
+
+    @Test
+    void weekly_alignsToMondays() {
+        List<LocalDate> starts = RefreshTokenPartitionMaintenance.periodsToCreate(TODAY, Interval.WEEKLY, 7);
+
+        assertEquals(List.of(LocalDate.of(2026, 10, 12), LocalDate.of(2026, 10, 19)), starts);
+    }
+
+    @Test
+    void isExpired_keepsADayOfMarginPastTheUpperBound() {
+        // daily partition for the 15th ends on the 16th; dropped from the 18th
+        assertFalse(RefreshTokenPartitionMaintenance.isExpired(TODAY.minusDays(2), Interval.DAILY, TODAY));
+        assertTrue(RefreshTokenPartitionMaintenance.isExpired(TODAY.minusDays(3), Interval.DAILY, TODAY));
+    }
+
+    @Test
+    void partitionNames_roundTrip_andOtherTablesAreIgnored() {
+        String name = RefreshTokenPartitionMaintenance.partitionName(TODAY);
+
+        assertEquals("refresh_tokens_p20261017", name);
+        assertEquals(TODAY, RefreshTokenPartitionMaintenance.parseStart(name));
+        assertNull(RefreshTokenPartitionMaintenance.parseStart("refresh_tokens_default"));
+        assertNull(RefreshTokenPartitionMaintenance.parseStart("refresh_tokens_pbogus"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.notebookapp.security.token;
+
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rotation under real concurrency. Not @Transactional: every thread has to
+ * commit for the row locks to matter, so each test removes only the user and
+ * tokens it created from the shared database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenRotationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired private RefreshTokenService refreshTokenService;
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private RefreshTokenCustomRepository customRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        String name = "rotator-" + UUID.randomUUID();
+        user = userRepository.save(new User(name, name + "@test.com", "not-a-real-hash"));
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id = ?", user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void sameTokenPresentedConcurrently_rotatesExactlyOnce() throws Exception {
+        String token = refreshTokenService.create(user);
+
+        List<RefreshTokenService.Rotation> results = runConcurrently(THREADS,
+                () -> refreshTokenService.validateAndRotate(token));
+
+        List<RefreshTokenService.Rotation> winners = results.stream().filter(Objects::nonNull).toList();
+        assertEquals(1, winners.size());
+
+        // the family holds the consumed parent and a single active child
+        RefreshToken parent = refreshTokenRepository.findByTokenHash(RefreshTokenService.sha256(token)).orElseThrow();
+        RefreshToken child = refreshTokenRepository
+                .findByTokenHash(RefreshTokenService.sha256(winners.get(0).getToken())).orElseThrow();
+        assertTrue(parent.isRevoked());
+        assertEquals(parent.getFamilyId(), child.getFamilyId());
+        assertEquals(parent.getId(), child.getParentId());
+        assertEquals(2, tokenCount());
+
+        // losers fell within the grace period, so the winner's token still works
+        assertNotNull(refreshTokenService.validateAndRotate(winners.get(0).getToken()));
+    }
+
+    @Test
+    void distinctFamiliesRotatedConcurrently_allSucceed() throws Exception {
+        int families = 200;
+        int rotations = 5;
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < families; i++) {
+            tokens.add(refreshTokenService.create(user));
+        }
+
+        List<Callable<Boolean>> chains = new ArrayList<>();
+        for (String first : tokens) {
+            chains.add(() -> {
+                String current = first;
+                for (int r = 0; r < rotations; r++) {
+                    RefreshTokenService.Rotation rotation = refreshTokenService.validateAndRotate(current);
+                    if (rotation == null) {
+                        return false;
+                    }
+                    current = rotation.getToken();
+                }
+                return true;
+            });
+        }
+        for (Future<Boolean> chain : executor.invokeAll(chains)) {
+            assertTrue(chain.get());
+        }
+
+        assertEquals(families * (rotations + 1), tokenCount());
+    }
+
+    @Test
+    void rotatedTokenReusedAfterGracePeriod_revokesWholeFamily() {
+        // same beans, no grace period and no in-memory cache
+        RefreshTokenService strict = new RefreshTokenService(refreshTokenRepository, customRepository,
+                userRepository, new SimpleMeterRegistry(), 604800000L, Duration.ZERO, 0);
+
+        String first = strict.create(user);
+        String second = strict.validateAndRotate(first).getToken();
+        String third = strict.validateAndRotate(second).getToken();
+
+        // replaying the first token kills the descendant that is still active
+        assertNull(strict.validateAndRotate(first));
+        assertNull(strict.validateAndRotate(third));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ? AND revoked = FALSE", Long.class, user.getId()));
+    }
+
+    private long tokenCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Long.class, user.getId());
+    }
+
+    private <T> List<T> runConcurrently(int count, Callable<T> task) throws Exception {
+        CountDownLatch ready = new CountDownLatch(count);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return task.call();
+            }));
+        }
+        ready.await();
+        go.countDown();
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.notebookapp.security.token;
+
+import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TokenCleanupSchedulerTest {
+
+    @Autowired private RefreshTokenRepository refreshTokenRepository;
+    @Autowired private RefreshTokenCustomRepository customRepository;
+    @Autowired private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        user = userRepository.save(new User("cleanup", "cleanup@test.com", "not-a-real-hash"));
+    }
+
+    @Test
+    void run_deletesExpiredTokensInBatches_andKeepsActiveAndRevokedOnes() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 25; i++) {
+            save("expired-" + i, now.minusSeconds(60), false);
+        }
+        for (int i = 0; i < 5; i++) {
+            save("active-" + i, now.plusSeconds(3600), false);
+        }
+        // revoked but unexpired rows stay for reuse detection
+        save("revoked", now.plusSeconds(3600), true);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TokenCleanupScheduler scheduler = new TokenCleanupScheduler(
+                customRepository, registry, 10, Duration.ZERO, Duration.ofMinutes(1));
+
+        assertEquals(25, scheduler.run());
+        assertEquals(6, refreshTokenRepository.count());
+        assertTrue(refreshTokenRepository.findAll().stream().allMatch(t -> t.getExpiresAt().isAfter(now)));
+
+        // 10 + 10 + 5: the short batch ends the run
+        assertEquals(3, registry.get("token.cleanup.batches").counter().count());
+        assertEquals(25, registry.get("token.cleanup.deleted").counter().count());
+    }
+
+    @Test
+    void run_stopsAtMaxRunEvenIfBatchesAreFull() {
+        for (int i = 0; i < 30; i++) {
+            save("expired-" + i, Instant.now().minusSeconds(60), false);
+        }
+
+        TokenCleanupScheduler scheduler = new TokenCleanupScheduler(
+                customRepository, new SimpleMeterRegistry(), 10, Duration.ZERO, Duration.ZERO);
+
+        assertEquals(10, scheduler.run());
+        assertEquals(20, refreshTokenRepository.count());
+    }
+
+    private void save(String token, Instant expiresAt, boolean revoked) {
+        RefreshToken refreshToken = new RefreshToken(
+                RefreshTokenService.sha256(token), user, expiresAt, UUID.randomUUID(), null);
+        if (revoked) {
+            refreshToken.revoke(Instant.now());
+        }
+        refreshTokenRepository.save(refreshToken);
+    }
+}
@@ -1,27 +1,44 @@
 package com.example.notebookapp.service;
 
+import com.example.notebookapp.dto.NotePage;
+import com.example.notebookapp.dto.NoteSummary;
 import com.example.notebookapp.exception.ForbiddenException;
+import com.example.notebookapp.exception.ResourceNotFoundException;
 import com.example.notebookapp.model.Note;
 import com.example.notebookapp.model.Role;
 import com.example.notebookapp.model.User;
+import com.example.notebookapp.repository.NoteCustomRepository;
 import com.example.notebookapp.repository.NoteRepository;
 import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.search.NoteSearchService;
+import com.example.notebookapp.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,12 +47,21 @@ class NoteServiceTest {
     @Mock
     private NoteRepository noteRepository;
 
+    @Mock
+    private NoteCustomRepository noteCustomRepository;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private NoteSearchService noteSearchService;
+
     @Mock
     private SecurityContext securityContext;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private NoteService noteService;
 
@@ -100,4 +126,100 @@ class NoteServiceTest {
 
         assertThrows(ForbiddenException.class, () -> noteService.getById(noteId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void delete_WhenUserOwnsNote_ShouldDeleteInOneStatement() {
+
+        mockAuthentication(testUser);
+        when(noteRepository.deleteByIdAndUserId(1L, testUser.getId())).thenReturn(1);
+
+        noteService.delete(1L);
+
+        verify(noteRepository, never()).existsById(any());
+        verify(noteSearchService).noteDeleted(testUser.getId(), 1L);
+    }
+
+    @Test
+    void delete_WhenUserDoesNotOwnNote_ShouldThrowForbiddenException() {
+
+        mockAuthentication(testUser);
+        when(noteRepository.deleteByIdAndUserId(1L, testUser.getId())).thenReturn(0);
+        when(noteRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ForbiddenException.class, () -> noteService.delete(1L));
+        verify(noteSearchService, never()).noteDeleted(any(), any());
+    }
+
+    @Test
+    void delete_WhenNoteDoesNotExist_ShouldThrowResourceNotFoundException() {
+
+        mockAuthentication(testUser);
+        when(noteRepository.deleteByIdAndUserId(1L, testUser.getId())).thenReturn(0);
+        when(noteRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> noteService.delete(1L));
+    }
+
+    @Test
+    void getAll_WhenMoreRowsThanLimit_ShouldReturnNextCursor() {
+
+        mockAuthentication(testUser);
+        // repository is asked for limit + 1 rows to detect the next page
+        when(noteCustomRepository.findSummariesByUserId(testUser.getId(), null, 3, 120)).thenReturn(List.of(
+                new NoteSummary(30L, "c", 1, "c"),
+                new NoteSummary(20L, "b", 1, "b"),
+                new NoteSummary(10L, "a", 1, "a")
+        ));
+
+        NotePage page = noteService.getAll(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(20L, page.getNext());
+    }
+
+    @Test
+    void getAll_WhenLastPage_ShouldReturnNoCursor() {
+
+        mockAuthentication(testUser);
+        when(noteCustomRepository.findSummariesByUserId(testUser.getId(), 20L, 3, 120)).thenReturn(List.of(
+                new NoteSummary(10L, "a", 1, "a")
+        ));
+
+        NotePage page = noteService.getAll(20L, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void getById_WhenPrincipalIsCached_ShouldNotQueryUsers() {
+
+        AuthenticatedUser principal = AuthenticatedUser.from(testUser);
+        Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        when(securityContext.getAuthentication()).thenReturn(auth);
+        Note note = new Note("My Note", "My Content", testUser.getId());
+        when(noteRepository.findById(1L)).thenReturn(Optional.of(note));
+
+        assertEquals("My Note", noteService.getById(1L).getTitle());
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void exportNdjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+
+        doAnswer(invocation -> {
+            Consumer<Note> consumer = invocation.getArgument(1);
+            consumer.accept(new Note(1L, "First", "one", testUser.getId()));
+            consumer.accept(new Note(2L, "Second", "two", testUser.getId()));
+            return null;
+        }).when(noteCustomRepository).streamByUserId(eq(testUser.getId()), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        noteService.exportNdjson(testUser.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("First", objectMapper.readTree(lines[0]).get("title").asString());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+}
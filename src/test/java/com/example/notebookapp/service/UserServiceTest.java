@@ -2,12 +2,17 @@ package com.example.notebookapp.service;
 
 import com.example.notebookapp.model.User;
 import com.example.notebookapp.repository.UserRepository;
+import com.example.notebookapp.security.password.ModularCryptPasswordEncoder;
+import com.example.notebookapp.security.password.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,9 +25,21 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    private PasswordHashingService passwordHashing;
     private UserService userService;
 
+    @BeforeEach
+    void setUp() {
+        passwordHashing = new PasswordHashingService(
+                new SimpleMeterRegistry(), ModularCryptPasswordEncoder.bcrypt(12), 1, 4, Duration.ofSeconds(30));
+        userService = new UserService(userRepository, passwordHashing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashing.shutdown();
+    }
+
     @Test
     void createUser_WithValidData_ShouldCreateUserAndHashPassword() {
 